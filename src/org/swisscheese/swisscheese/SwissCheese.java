@@ -16,11 +16,17 @@
  */
 package org.swisscheese.swisscheese;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+
+import javax.swing.JOptionPane;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 
 import org.swisscheese.swisscheese.game.GameFromSettings;
+import org.swisscheese.swisscheese.map.DifficultyLevel;
 import org.swisscheese.swisscheese.settings.GameSettings;
+import org.swisscheese.swisscheese.uiWindows.GenerationProgressWindow;
 import org.swisscheese.swisscheese.uiWindows.StartMenu;
 
 /**
@@ -45,7 +51,7 @@ public class SwissCheese {
 		GameSettings settings;
 		if (menu.isNewGame()) {
 			settings = menu.getSettings();
-			game = GameFromSettings.newGame(settings, menu.getDiff(), menu.getGameName());
+			game = startNewGame(settings, menu.getDiff(), menu.getGameName());
 		} else if (!menu.isNewGame()) {
 			settings = menu.getSettings();
 			game = GameFromSettings.fromGameSave(settings, menu.getGameSave());
@@ -57,6 +63,30 @@ public class SwissCheese {
 		}
 	}
 
+	/**
+	 * Starts a new game. The maze is generated on another thread, while a
+	 * {@link GenerationProgressWindow} shows the progress.
+	 * 
+	 * @param settings settings of the game instance.
+	 * @param level    difficulty of the game
+	 * @param name     name of the new game
+	 * @return the started game.
+	 */
+	private static GameFromSettings startNewGame(GameSettings settings, DifficultyLevel level, String name) {
+		final GenerationProgressWindow progress = new GenerationProgressWindow(level);
+		try {
+			return GameFromSettings.newGameAsync(settings, level, name, progress).join();
+		} catch (CancellationException | CompletionException e) {
+			final Throwable cause = (e.getCause() != null) ? e.getCause() : e;
+			JOptionPane.showMessageDialog(progress, "The maze could not be generated:\n" + cause.getMessage(),
+					"New Game", JOptionPane.ERROR_MESSAGE);
+			System.exit(0);
+			return null;
+		} finally {
+			progress.dispose();
+		}
+	}
+
 	/**
 	 * @param args
 	 */
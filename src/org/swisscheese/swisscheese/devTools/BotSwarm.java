@@ -0,0 +1,197 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.devTools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.swisscheese.swisscheese.engine.camera.Movement;
+import org.swisscheese.swisscheese.engine.camera.View;
+import org.swisscheese.swisscheese.game.GameLoop;
+import org.swisscheese.swisscheese.map.FlowField;
+import org.swisscheese.swisscheese.map.Map;
+import org.swisscheese.swisscheese.map.MazeGrid;
+import org.swisscheese.swisscheese.map.MazeSolver;
+import org.swisscheese.swisscheese.map.maze.MazeAlgorithm;
+
+/**
+ * A headless load test of the movement and collision code. Runs thousands of
+ * bots through a maze at once, without a window.
+ * <p>
+ * Every bot has its own {@link View}, and is moved by the same rules as the
+ * player ({@link Movement}): each tick, it pans towards the center of the next
+ * cell on the shortest path to the exit (from the {@link FlowField} of the
+ * exit), and walks forward when it faces it. A bot that reaches the exit
+ * starts again from a random cell, so the load never drops.
+ * <p>
+ * The bots do not interact, so they are split into one shard per thread, and
+ * every shard runs all of its ticks without waiting for the others.
+ * <p>
+ * Usage: {@code BotSwarm [bots] [maze size] [ticks] [threads]}
+ * 
+ * @author Alex Kalinins
+ * @since 2019-02-15
+ * @since v1.0
+ * @version v1.0
+ */
+public class BotSwarm {
+	private static final int DEFAULT_BOTS = 2000;
+	private static final int DEFAULT_SIZE = 50;
+	/** Ten seconds of game time */
+	private static final int DEFAULT_TICKS = GameLoop.TICK_RATE * 10;
+	private static final float TICK_SECONDS = 1f / GameLoop.TICK_RATE;
+	/** The largest angle (in radians) between the bot and its target for walking */
+	private static final float WALK_ANGLE = 0.5f;
+	/** The field of view of the bots (only changes the camera plane) */
+	private static final float FOV = 0.66f;
+	private static final long SEED = 42L;
+
+	private final Map map;
+	private final MazeGrid cells;
+	private final FlowField exit;
+	private final int ticks;
+
+	/**
+	 * Constructor. Generates the maze and the flow field of its exit.
+	 * 
+	 * @param size  the size of the maze (in cells).
+	 * @param ticks the number of ticks each bot runs.
+	 */
+	private BotSwarm(int size, int ticks) {
+		map = new Map(size, SEED, MazeAlgorithm.BACKTRACKER);
+		cells = map.getCellSource();
+		exit = MazeSolver.flowField(cells, map.getExit().getX(), map.getExit().getY());
+		this.ticks = ticks;
+	}
+
+	/**
+	 * Runs the simulation and prints the results.
+	 * 
+	 * @param args bots, maze size, ticks and threads (all optional).
+	 * @throws Exception if a shard fails.
+	 */
+	public static void main(String[] args) throws Exception {
+		final int bots = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_BOTS;
+		final int size = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_SIZE;
+		final int ticks = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_TICKS;
+		final int threads = (args.length > 3) ? Integer.parseInt(args[3])
+				: Runtime.getRuntime().availableProcessors();
+
+		final BotSwarm swarm = new BotSwarm(size, ticks);
+		final SplittableRandom rand = new SplittableRandom(SEED);
+		final ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			final List<Future<Integer>> shards = new ArrayList<>();
+			final long start = System.nanoTime();
+			for (int i = 0; i < threads; i++) {
+				final int count = bots / threads + ((i < bots % threads) ? 1 : 0);
+				final SplittableRandom shardRand = rand.split();
+				shards.add(pool.submit(() -> swarm.runShard(count, shardRand)));
+			}
+			int finished = 0;
+			for (Future<Integer> shard : shards) {
+				finished += shard.get();
+			}
+			final double seconds = (System.nanoTime() - start) / 1e9;
+
+			System.out.printf("%d bots, %d ticks each, %d threads, maze of %d cells%n", bots, ticks, threads,
+					size * size);
+			System.out.printf("%.3f s, %.0f bot-ticks/s, %d exits reached%n", seconds, (double) bots * ticks / seconds,
+					finished);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Runs all the ticks of a shard of bots.
+	 * 
+	 * @param count the number of bots of the shard.
+	 * @param rand  the random generator of the shard.
+	 * @return the number of times a bot reached the exit.
+	 */
+	private int runShard(int count, SplittableRandom rand) {
+		final View[] views = new View[count];
+		for (int i = 0; i < count; i++) {
+			views[i] = spawn(rand);
+		}
+		int finished = 0;
+		for (int t = 0; t < ticks; t++) {
+			for (int i = 0; i < count; i++) {
+				if (tick(views[i])) {
+					views[i] = spawn(rand);
+					finished++;
+				}
+			}
+		}
+		return finished;
+	}
+
+	/**
+	 * Moves a bot by one tick.
+	 * 
+	 * @param view the view of the bot.
+	 * @return true if the bot reached the exit.
+	 */
+	private boolean tick(View view) {
+		final int x = (int) view.getxPos();
+		final int y = (int) view.getyPos();
+		if (exit.getDistance(x, y) <= 1) {
+			return true; // next to the exit (the exit itself is a wall)
+		}
+
+		// the center of the next cell on the path
+		final float dx = x + exit.getStepX(x, y) + 0.5f - view.getxPos();
+		final float dy = y + exit.getStepY(x, y) + 0.5f - view.getyPos();
+		final float xDir = view.getxDir();
+		final float yDir = view.getyDir();
+		final float angle = (float) Math.atan2(xDir * dy - yDir * dx, xDir * dx + yDir * dy);
+
+		final float maxTurn = Movement.ROTATION_SPEED * TICK_SECONDS;
+		Movement.pan(view, Math.max(-maxTurn, Math.min(maxTurn, angle)));
+		if (Math.abs(angle) < WALK_ANGLE) {
+			final float step = Movement.MOVE_SPEED * TICK_SECONDS;
+			Movement.move(view, cells, view.getxDir() * step, view.getyDir() * step);
+		}
+		return false;
+	}
+
+	/**
+	 * Places a new bot in the center of a random empty cell, facing a random
+	 * direction.
+	 * 
+	 * @param rand the random generator.
+	 * @return the view of the new bot.
+	 */
+	private View spawn(SplittableRandom rand) {
+		int x;
+		int y;
+		do {
+			x = rand.nextInt(cells.getWidth());
+			y = rand.nextInt(cells.getHeight());
+		} while (cells.getCell(x, y) != 0 || exit.getDistance(x, y) <= 1);
+
+		final float angle = (float) (rand.nextDouble() * 2 * Math.PI);
+		final float xDir = (float) Math.cos(angle);
+		final float yDir = (float) Math.sin(angle);
+		return new View(x + 0.5f, y + 0.5f, xDir, yDir, -yDir * FOV, xDir * FOV);
+	}
+}
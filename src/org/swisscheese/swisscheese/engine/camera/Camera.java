@@ -23,6 +23,11 @@ import org.swisscheese.swisscheese.map.Map;
 
 /**
  * Camera object. INCOMPLETE
+ * <p>
+ * The {@link View} of the camera is moved by the {@link Mover} in fixed
+ * simulation ticks. Frames are rendered from a separate render view, which is
+ * interpolated between the last two ticks, so that the movement is smooth
+ * regardless of the frame rate.
  * 
  * @author Alex Kalinins
  * @since 2018-12-10
@@ -34,6 +39,10 @@ public final class Camera {
 	private final float FOV;
 	private final Mover mover;
 	private View view;
+	/** The view that is rendered (interpolated between the last two ticks). */
+	private final View renderView;
+	/** The state of the view before the last tick. */
+	private final float[] previous = new float[6];
 
 	/**
 	 * Camera constructor
@@ -55,13 +64,72 @@ public final class Camera {
 			this.view = view[0];
 		}
 		mover = new Mover(this.view, map);
+		saveState();
+		renderView = new View(previous[0], previous[1], previous[2], previous[3], previous[4], previous[5]);
 	}
 
+	/**
+	 * Getter for the {@link View} of the simulation (where the player really
+	 * is).
+	 * 
+	 * @return the view.
+	 */
 	public final View getView() {
 		view = mover.getView();
 		return view;
 	}
 
+	/**
+	 * Getter for the {@link View} from which frames are rendered. Updated by
+	 * {@link #interpolate(float)}.
+	 * 
+	 * @return the render view.
+	 */
+	public final View getRenderView() {
+		return renderView;
+	}
+
+	/**
+	 * Advances the simulation by one tick.
+	 * 
+	 * @param delta the length of the tick (in seconds).
+	 */
+	public final void update(float delta) {
+		saveState();
+		mover.update(delta);
+	}
+
+	/**
+	 * Sets the render view between the state before the last tick and the
+	 * current state.
+	 * 
+	 * @param alpha how far the frame is between the last tick and the next one
+	 *              (from 0 to 1).
+	 */
+	public final void interpolate(float alpha) {
+		final View view = getView();
+		renderView.updateView(lerp(previous[0], view.getxPos(), alpha), lerp(previous[1], view.getyPos(), alpha),
+				lerp(previous[2], view.getxDir(), alpha), lerp(previous[3], view.getyDir(), alpha),
+				lerp(previous[4], view.getxPlane(), alpha), lerp(previous[5], view.getyPlane(), alpha));
+	}
+
+	/**
+	 * Saves the current state of the view as the previous state.
+	 */
+	private void saveState() {
+		final View view = getView();
+		previous[0] = view.getxPos();
+		previous[1] = view.getyPos();
+		previous[2] = view.getxDir();
+		previous[3] = view.getyDir();
+		previous[4] = view.getxPlane();
+		previous[5] = view.getyPlane();
+	}
+
+	private static float lerp(float from, float to, float alpha) {
+		return from + (to - from) * alpha;
+	}
+
 	public final Mover getMover() {
 		return mover;
 	}
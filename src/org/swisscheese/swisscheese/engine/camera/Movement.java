@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.engine.camera;
+
+import org.swisscheese.swisscheese.annotations.ThreadSafe;
+import org.swisscheese.swisscheese.map.CellSource;
+
+/**
+ * The movement and collision rules of a player, shared by {@link Mover} and
+ * the bots of {@link org.swisscheese.swisscheese.devTools.BotSwarm}.
+ * <p>
+ * A move is done one axis at a time: the player moves in x if the cell at the
+ * new location is empty, and then in y if that cell is empty. So a player that
+ * walks into a wall at an angle slides along the wall instead of stopping.
+ * <p>
+ * The rules only change the {@link View} they are given, so many views can be
+ * moved by many threads at once.
+ * 
+ * @author Alex Kalinins
+ * @since 2019-02-15
+ * @since v1.0
+ * @version v1.0
+ */
+@ThreadSafe
+public final class Movement {
+	/** Movement speed constant (map units per second) */
+	public static final float MOVE_SPEED = 6f;
+	/** Rotation speed constant (radians per second) */
+	public static final float ROTATION_SPEED = 6f;
+
+	/** A private constructor - do not instantiate */
+	private Movement() {
+		throw new SecurityException("Movement not meant to be instantiated");
+	}
+
+	/**
+	 * Moves a view by a vector, unless there is a wall in the way.
+	 * 
+	 * @param view  the view that is moved.
+	 * @param cells the cells of the map.
+	 * @param xMove the distance moved in x.
+	 * @param yMove the distance moved in y.
+	 */
+	public static void move(View view, CellSource cells, float xMove, float yMove) {
+		final float x = view.getxPos() + xMove;
+		if (cells.getCell((int) x, (int) view.getyPos()) == 0) {
+			view.setxPos(x);
+		}
+		final float y = view.getyPos() + yMove;
+		if (cells.getCell((int) view.getxPos(), (int) y) == 0) {
+			view.setyPos(y);
+		}
+	}
+
+	/**
+	 * Pans a view (rotates the direction and the camera plane).
+	 * 
+	 * @param view  the view that is panned.
+	 * @param angle the angle (in radians) of rotation. Positive pans left.
+	 */
+	public static void pan(View view, float angle) {
+		final float cos = (float) Math.cos(angle);
+		final float sin = (float) Math.sin(angle);
+
+		float oldxDir = view.getxDir();
+		view.setxDir(view.getxDir() * cos - view.getyDir() * sin);
+		view.setyDir(oldxDir * sin + view.getyDir() * cos);
+
+		float oldxPlane = view.getxPlane();
+		view.setxPlane(view.getxPlane() * cos - view.getyPlane() * sin);
+		view.setyPlane(oldxPlane * sin + view.getyPlane() * cos);
+	}
+}
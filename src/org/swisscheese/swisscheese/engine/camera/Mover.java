@@ -20,6 +20,7 @@ import javax.swing.JOptionPane;
 
 import org.swisscheese.swisscheese.annotations.ThreadSafe;
 import org.swisscheese.swisscheese.engine.display.Window;
+import org.swisscheese.swisscheese.map.CellSource;
 import org.swisscheese.swisscheese.map.Map;
 
 /**
@@ -39,9 +40,14 @@ import org.swisscheese.swisscheese.map.Map;
  * is started, a boolean flag is set to true. The {@code update} method calls
  * private calculating methods to calculate the movement.
  * <p>
- * Movement and rotation speed are set as final floats. There is a possibility
- * of passing them through in future versions of {@code Mover} in order to
- * select control sensitivity.
+ * The collision rules are in {@link Movement}, which is shared with
+ * headless simulations.
+ * <p>
+ * Movement and rotation speed are set as final floats (per second). There is a
+ * possibility of passing them through in future versions of {@code Mover} in
+ * order to select control sensitivity. The distance moved by each update is
+ * proportional to the length of the simulation tick, so the speed does not
+ * depend on the frame rate.
  * 
  * @author Alex Kalinins
  * @since 2018-12-10
@@ -59,16 +65,14 @@ public class Mover {
 	private boolean panR;
 	/** Boolean determining if the mover is stopped */
 	private static boolean usable = true;
-	/** Map used */
-	private final int[][] map;
+	/** Cells of the map used */
+	private final CellSource map;
 	/** View */
 	private View view;
-	/** Movement speed constant */
-	private static final float MOVE_SPEED = 0.1f;
-	/** Rotation speed constant */
-	private static final float ROTATION_SPEED = 0.1f;
-	/** counts down each frame to death of {@link Mover} */
-	private int deathCounter = 200;
+	/** Time (in seconds) that the player can still move after the game ends */
+	private static final float DEATH_DELAY = 10f / 3f;
+	/** counts down each update to death of {@link Mover} (in seconds) */
+	private float deathCounter = DEATH_DELAY;
 	/**full stop*/
 	private boolean fullStop = false;
 
@@ -81,8 +85,20 @@ public class Mover {
 	 *             the map the player is in.
 	 */
 	public Mover(View view, Map map) {
+		this(view, map.getCellSource());
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param view  a {@link org.swisscheese.swisscheese.engine.camera.View} object
+	 *              containing Vectors of the players location and POV
+	 * @param cells the cells of the map the player is in (for example a
+	 *              {@link org.swisscheese.swisscheese.map.ChunkedMaze}).
+	 */
+	public Mover(View view, CellSource cells) {
 		setView(view);
-		this.map = map.getMap(); // caching map
+		this.map = cells.cursor(); // the player is only moved by the game loop
 	}
 
 	public void setView(View view) {
@@ -96,30 +112,33 @@ public class Mover {
 	/**
 	 * Updates {@code View} base on which movement/panning flags are set to
 	 * {@code true}.
+	 * 
+	 * @param delta the time (in seconds) since the last update.
 	 */
-	public synchronized void update() {
+	public synchronized void update(float delta) {
 		if (usable || deathCounter > 0) {
 			if (!usable)
-				deathCounter--;
+				deathCounter -= delta;
+			final float step = Movement.MOVE_SPEED * delta;
 			if (moveF) {
-				moveForwardCalc();
+				moveForwardCalc(step);
 			}
 			if (moveB) {
-				moveBackwardCalc();
+				moveBackwardCalc(step);
 			}
 			if (moveL) {
-				moveLeftCalc();
+				moveLeftCalc(step);
 			}
 			if (moveR) {
-				moveRightCalc();
+				moveRightCalc(step);
 			}
 			if (panL) {
-				panLeftCalc();
+				panCalc(Movement.ROTATION_SPEED * delta);
 			}
 			if (panR) {
-				panRightCalc();
+				panCalc(-Movement.ROTATION_SPEED * delta);
 			}
-		}else if(deathCounter == 0&&!fullStop){
+		}else if(!fullStop){
 			fullStop = true;
 			JOptionPane.showMessageDialog(Window.getWindow(), "You completed the game!!!", "Finished Game!", JOptionPane.PLAIN_MESSAGE);
 		}
@@ -134,93 +153,47 @@ public class Mover {
 
 	/**
 	 * Does calculation for forward movement.
+	 * 
+	 * @param step the distance moved.
 	 */
-	private void moveForwardCalc() {
-		float xMove;
-		float yMove;
-
-		if (map[(int) (xMove = view.getxPos() + view.getxDir() * MOVE_SPEED)][(int) (view.getyPos())] == 0) {
-			view.setxPos(xMove);
-		}
-		if (map[(int) (view.getxPos())][(int) (yMove = view.getyPos() + view.getyDir() * MOVE_SPEED)] == 0) {
-			view.setyPos(yMove);
-		}
+	private void moveForwardCalc(float step) {
+		Movement.move(view, map, view.getxDir() * step, view.getyDir() * step);
 	}
 
 	/**
 	 * Does calculation for backward movement.
+	 * 
+	 * @param step the distance moved.
 	 */
-	private void moveBackwardCalc() {
-		float xMove;
-		float yMove;
-
-		if (map[(int) (xMove = view.getxPos() - view.getxDir() * MOVE_SPEED)][(int) (view.getyPos())] == 0) {
-			view.setxPos(xMove);
-		}
-		if (map[(int) (view.getxPos())][(int) (yMove = view.getyPos() - view.getyDir() * MOVE_SPEED)] == 0) {
-			view.setyPos(yMove);
-		}
-
+	private void moveBackwardCalc(float step) {
+		Movement.move(view, map, -view.getxDir() * step, -view.getyDir() * step);
 	}
 
 	/**
 	 * Does calculation for left movement.
+	 * 
+	 * @param step the distance moved.
 	 */
-	private void moveLeftCalc() {
-		float xMove;
-		float yMove;
-
-		if (map[(int) (xMove = view.getxPos() - view.getxPlane() * MOVE_SPEED)][(int) (view.getyPos())] == 0) {
-			view.setxPos(xMove);
-		}
-		if (map[(int) (view.getxPos())][(int) (yMove = view.getyPos() - view.getyPlane() * MOVE_SPEED)] == 0) {
-			view.setyPos(yMove);
-		}
+	private void moveLeftCalc(float step) {
+		Movement.move(view, map, -view.getxPlane() * step, -view.getyPlane() * step);
 	}
 
 	/**
 	 * Does calculation for right movement.
+	 * 
+	 * @param step the distance moved.
 	 */
-	private void moveRightCalc() {
-		float xMove;
-		float yMove;
-
-		if (map[(int) (xMove = view.getxPos() + view.getxPlane() * MOVE_SPEED)][(int) (view.getyPos())] == 0) {
-			view.setxPos(xMove);
-		}
-		if (map[(int) (view.getxPos())][(int) (yMove = view.getyPos() + view.getyPlane() * MOVE_SPEED)] == 0) {
-			view.setyPos(yMove);
-		}
-	}
-
-	/**
-	 * Does calculation for left panning.
-	 */
-	private void panLeftCalc() {
-		float oldxDir = view.getxDir();
-		view.setxDir((float) (view.getxDir() * Math.cos(ROTATION_SPEED) - view.getyDir() * Math.sin(ROTATION_SPEED)));
-		view.setyDir((float) (oldxDir * Math.sin(ROTATION_SPEED) + view.getyDir() * Math.cos(ROTATION_SPEED)));
-
-		float oldxPlane = view.getxPlane();
-
-		view.setxPlane(
-				(float) (view.getxPlane() * Math.cos(ROTATION_SPEED) - view.getyPlane() * Math.sin(ROTATION_SPEED)));
-		view.setyPlane((float) (oldxPlane * Math.sin(ROTATION_SPEED) + view.getyPlane() * Math.cos(ROTATION_SPEED)));
+	private void moveRightCalc(float step) {
+		Movement.move(view, map, view.getxPlane() * step, view.getyPlane() * step);
 	}
 
 	/**
-	 * Does calculation for right panning
+	 * Does calculation for panning (rotating the direction and the camera plane).
+	 * 
+	 * @param angle the angle (in radians) of rotation. Positive pans left.
 	 */
-	private void panRightCalc() {
-		float oldxDir = view.getxDir();
-		view.setxDir((float) (view.getxDir() * Math.cos(-ROTATION_SPEED) - view.getyDir() * Math.sin(-ROTATION_SPEED)));
-		view.setyDir((float) (oldxDir * Math.sin(-ROTATION_SPEED) + view.getyDir() * Math.cos(-ROTATION_SPEED)));
-
-		float oldxPlane = view.getxPlane();
-
-		view.setxPlane(
-				(float) (view.getxPlane() * Math.cos(-ROTATION_SPEED) - view.getyPlane() * Math.sin(-ROTATION_SPEED)));
-		view.setyPlane((float) (oldxPlane * Math.sin(-ROTATION_SPEED) + view.getyPlane() * Math.cos(-ROTATION_SPEED)));
+	private void panCalc(float angle) {
+		Movement.pan(view, angle);
 	}
 
 	/**
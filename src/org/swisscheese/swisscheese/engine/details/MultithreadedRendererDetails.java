@@ -20,6 +20,7 @@ import java.util.List;
 
 import org.swisscheese.swisscheese.annotations.Immutable;
 import org.swisscheese.swisscheese.engine.texture.WallTexture;
+import org.swisscheese.swisscheese.map.CellSource;
 
 /**
  * A RendererDetails object for multi-threaded renderers.
@@ -40,7 +41,7 @@ public class MultithreadedRendererDetails extends RendererDetails {
 	 * 
 	 * @param nThreads the number of threads the multithreaded renderer uses.
 	 */
-	public MultithreadedRendererDetails(float width, float height, List<WallTexture> wallTextures, int[][] maze,
+	public MultithreadedRendererDetails(float width, float height, List<WallTexture> wallTextures, CellSource maze,
 			int nThreads) {
 		super(width, height, wallTextures, maze);
 		this.nThreads = nThreads;
@@ -20,6 +20,7 @@ import java.util.List;
 
 import org.swisscheese.swisscheese.annotations.Immutable;
 import org.swisscheese.swisscheese.engine.texture.WallTexture;
+import org.swisscheese.swisscheese.map.CellSource;
 
 /**
  * A class to make an object that groups all the fields of the
@@ -39,7 +40,7 @@ public class RendererDetails {
 	public final float width;
 	public final float height;
 	public final List<WallTexture> wallTextures;
-	public final int[][] maze;
+	public final CellSource maze;
 
 	/**
 	 * Constructor.
@@ -47,9 +48,9 @@ public class RendererDetails {
 	 * @param width        width of the screen
 	 * @param height       height of the screen
 	 * @param wallTextures list of {@link WallTexture} objects
-	 * @param maze         maze of the game
+	 * @param maze         the cells of the maze of the game
 	 */
-	public RendererDetails(float width, float height, List<WallTexture> wallTextures, int[][] maze) {
+	public RendererDetails(float width, float height, List<WallTexture> wallTextures, CellSource maze) {
 		this.width = width;
 		this.height = height;
 		this.wallTextures = wallTextures;
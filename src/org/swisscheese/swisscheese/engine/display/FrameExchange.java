@@ -0,0 +1,154 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.engine.display;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.swisscheese.swisscheese.annotations.ThreadSafe;
+
+/**
+ * A lock-free triple buffer of preallocated frame images. The pixels array of
+ * each image is the {@link DataBufferInt} of its raster, so a renderer draws
+ * straight into the image, and the image can be drawn onto the screen without
+ * any conversion. Nothing is allocated after the exchange is created.
+ * <p>
+ * One thread renders into the back frame, and another (or the same) thread
+ * draws the front frame onto the screen. The third frame is the middle frame,
+ * through which complete frames are handed over:
+ * <ul>
+ * <li>{@link #publish()} swaps the back frame with the middle frame, and marks
+ * the middle frame as new.</li>
+ * <li>{@link #acquire()} swaps the front frame with the middle frame, if the
+ * middle frame is new.</li>
+ * </ul>
+ * Both swaps are a single atomic operation, so neither thread ever waits for
+ * the other. If the renderer is faster, the frames that were not displayed are
+ * dropped.
+ * <p>
+ * The back frame that a renderer gets is not the frame it published last, but
+ * an older one. A renderer that does not clear the frame (the psychadelic mode
+ * of the renderer) draws over the previous frame, so it first copies the last
+ * published frame into the back frame ({@link #copyLastFrame()}).
+ * <p>
+ * {@link #getBackPixels()}, {@link #publish()} and {@link #copyLastFrame()}
+ * must only be called by the rendering thread, and {@link #acquire()} and
+ * {@link #getFrontImage()} must only be called by the displaying thread.
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-06
+ * @since v1.0
+ * @version v1.0
+ */
+@ThreadSafe
+public final class FrameExchange {
+	/** Number of frames. */
+	private static final int FRAMES = 3;
+	/** Bits of {@code middle} that hold the index of the frame. */
+	private static final int INDEX = 0b011;
+	/** Bit of {@code middle} that is set if the middle frame was not acquired. */
+	private static final int NEW = 0b100;
+
+	/** The frame images. */
+	private final BufferedImage[] images = new BufferedImage[FRAMES];
+	/** The pixels of each frame image (backed by the image). */
+	private final int[][] pixels = new int[FRAMES][];
+	/** Index of the middle frame, and the {@code NEW} bit. */
+	private final AtomicInteger middle = new AtomicInteger(1);
+	/** Index of the frame that is being rendered (rendering thread only). */
+	private int back = 0;
+	/** Index of the displayed frame (displaying thread only). */
+	private int front = 2;
+	/** Index of the last published frame, -1 if none (rendering thread only). */
+	private int published = -1;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param width  width of the frames.
+	 * @param height height of the frames.
+	 */
+	public FrameExchange(int width, int height) {
+		for (int i = 0; i < FRAMES; i++) {
+			images[i] = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			pixels[i] = ((DataBufferInt) images[i].getRaster().getDataBuffer()).getData();
+		}
+	}
+
+	/**
+	 * Getter for the pixels of the back frame, into which the next frame is
+	 * rendered.
+	 *
+	 * @return the pixels array of the back frame.
+	 */
+	public int[] getBackPixels() {
+		return pixels[back];
+	}
+
+	/**
+	 * Hands the complete back frame over to the displaying thread. The back frame
+	 * becomes the frame that was in the middle.
+	 */
+	public void publish() {
+		published = back;
+		back = middle.getAndSet(back | NEW) & INDEX;
+	}
+
+	/**
+	 * Copies the last published frame into the back frame. The last published
+	 * frame is either the middle or the front frame, which are never written to,
+	 * so it can be read while it is displayed. Does nothing if no frame was
+	 * published yet.
+	 */
+	public void copyLastFrame() {
+		if (published >= 0) {
+			System.arraycopy(pixels[published], 0, pixels[back], 0, pixels[back].length);
+		}
+	}
+
+	/**
+	 * @return true if a frame was published since the last {@link #acquire()}.
+	 */
+	public boolean hasNewFrame() {
+		return (middle.get() & NEW) != 0;
+	}
+
+	/**
+	 * Makes the last published frame the front frame. Does nothing if no frame
+	 * was published since the last call.
+	 *
+	 * @return true if the front frame changed.
+	 */
+	public boolean acquire() {
+		if (!hasNewFrame()) {
+			return false;
+		}
+		// only the displaying thread clears the bit, so it is still set here.
+		front = middle.getAndSet(front) & INDEX;
+		return true;
+	}
+
+	/**
+	 * Getter for the image of the front (displayed) frame.
+	 *
+	 * @return the front frame image.
+	 */
+	public BufferedImage getFrontImage() {
+		return images[front];
+	}
+}
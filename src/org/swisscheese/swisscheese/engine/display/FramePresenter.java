@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.engine.display;
+
+import java.util.concurrent.locks.LockSupport;
+
+import org.swisscheese.swisscheese.annotations.ThreadSafe;
+
+/**
+ * The presenting stage of the pipelined frame mode. The presenter runs on its
+ * own thread, and displays every frame that is published to the
+ * {@link FrameExchange} of the {@link Window}, while the game loop is already
+ * rendering the next frame.
+ * <p>
+ * When there is no new frame, the presenter parks until
+ * {@link #framePublished()} is called.
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-06
+ * @since v1.0
+ * @version v1.0
+ */
+@ThreadSafe
+final class FramePresenter implements Runnable {
+	/** The window that displays the frames. */
+	private final Window window;
+	/** The exchange through which the frames are received. */
+	private final FrameExchange frames;
+	/** The presenting thread. */
+	private final Thread thread;
+	private volatile boolean running;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param window the window that displays the frames.
+	 * @param frames the exchange through which the frames are received.
+	 */
+	FramePresenter(Window window, FrameExchange frames) {
+		this.window = window;
+		this.frames = frames;
+		thread = new Thread(this, "Frame Presenter");
+		thread.setDaemon(true);
+	}
+
+	/**
+	 * Starts the presenting thread.
+	 */
+	void start() {
+		running = true;
+		thread.start();
+	}
+
+	/**
+	 * Stops the presenting thread, and waits for it to finish.
+	 */
+	void stop() {
+		running = false;
+		LockSupport.unpark(thread);
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Wakes up the presenting thread. Called after a frame is published.
+	 */
+	void framePublished() {
+		LockSupport.unpark(thread);
+	}
+
+	@Override
+	public void run() {
+		while (running) {
+			if (frames.hasNewFrame()) {
+				try {
+					window.switchBuffer();
+				} catch (RuntimeException e) {
+					e.printStackTrace();
+				}
+			} else {
+				// a frame published after the check unparks immediately
+				LockSupport.park(this);
+			}
+		}
+	}
+}
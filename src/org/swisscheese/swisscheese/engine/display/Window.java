@@ -23,8 +23,8 @@ import java.awt.Toolkit;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.image.BufferStrategy;
-import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferInt;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.swing.JFrame;
 
@@ -36,13 +36,13 @@ import org.swisscheese.swisscheese.engine.camera.View;
 import org.swisscheese.swisscheese.engine.details.MultithreadedRendererDetails;
 import org.swisscheese.swisscheese.engine.details.RendererDetails;
 import org.swisscheese.swisscheese.engine.details.UseRenderer;
-import org.swisscheese.swisscheese.engine.io.images.ImageFromArray;
 import org.swisscheese.swisscheese.engine.keyboard.KeyPreferenceIO;
 import org.swisscheese.swisscheese.engine.keyboard.Keyboard;
 import org.swisscheese.swisscheese.engine.rendering.MultithreadedRendererDispatcher;
 import org.swisscheese.swisscheese.engine.rendering.Renderer;
 import org.swisscheese.swisscheese.engine.rendering.RendererFactory;
 import org.swisscheese.swisscheese.engine.rendering.RendererType;
+import org.swisscheese.swisscheese.engine.texture.WallTexture;
 import org.swisscheese.swisscheese.engine.texture.WallTextureList;
 import org.swisscheese.swisscheese.gameSaving.SaveMetadata;
 import org.swisscheese.swisscheese.map.Map;
@@ -67,20 +67,23 @@ public class Window extends JFrame {
 
 	// not my stuff:
 	private BufferStrategy buffer; // renders the next frame while the current one is being displayed
-	private BufferedImage bufferImage; // a image buffer
 	private Graphics graphics;
 
 	// my stuff:
-	private Renderer renderer;
+	private volatile Renderer renderer; // only replaced by the game loop, between frames
+	/** A renderer that replaces <code>renderer</code> before the next frame */
+	private final AtomicReference<Renderer> nextRenderer = new AtomicReference<>();
 	private static Camera camera;
 	public static Mover mover;
 	private Keyboard keyboard;
 	private static SaveMetadata metadata;
 
+	private final FrameExchange frames; // the frame images (rendered directly)
+	private volatile FramePresenter presenter; // null unless frames are pipelined
+
 	// primitives:
 	private int width;
 	private int height;
-	private volatile int[] pixels;
 
 	/**
 	 * Constructor for the window of {@code SwissCheese}.
@@ -99,15 +102,14 @@ public class Window extends JFrame {
 	 *                    the game so that they can be identified in the future
 	 *                    based on their name, and the time of saving. (Variable
 	 *                    name misspelled intentionally).
-	 * @param texturePack the {@link TexturePack} object from which texture
-	 *                    resources will be opened in order to have walls with
-	 *                    textures.
+	 * @param textures    the decoded textures of the walls (see
+	 *                    {@link WallTextureList}).
 	 * @param view        the view from the camera. This variable is <b>only needed
 	 *                    if opening a game save!</b> If no variable is passed
 	 *                    through, a new {@code View} is created.
 	 */
 	private Window(int width, int height, boolean fitToScreen, Map map, float FOV, SaveMetadata metadataa,
-			TexturePack texturePack, UseRenderer useRenderer, View... view) {
+			List<WallTexture> textures, UseRenderer useRenderer, View... view) {
 		if (window != null) {
 			throw new SecurityException();
 		}
@@ -126,16 +128,13 @@ public class Window extends JFrame {
 
 		camera = new Camera(this.width, this.height, map, FOV, view);
 		RendererDetails details = useRenderer.type == RendererType.SINGLE_THREAD
-				? new RendererDetails(width, height, new WallTextureList(texturePack).getList(), map.getMap())
-				: new MultithreadedRendererDetails(width, height, new WallTextureList(texturePack).getList(),
-						map.getMap(), useRenderer.nThreads);
+				? new RendererDetails(width, height, textures, map.getCellSource())
+				: new MultithreadedRendererDetails(width, height, textures, map.getCellSource(), useRenderer.nThreads);
 		System.out.printf("Creating new %s Renderer%n", useRenderer.type.toString());
 		renderer = RendererFactory.createFromEnum(useRenderer.type, details, camera);
 		mover = camera.getMover();
 
-		bufferImage = new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_RGB);
-
-		pixels = ((DataBufferInt) bufferImage.getRaster().getDataBuffer()).getData();
+		frames = new FrameExchange(this.width, this.height);
 
 		keyboard = new Keyboard();
 		KeyPreferenceIO.readFromFile();
@@ -187,8 +186,32 @@ public class Window extends JFrame {
 	public static synchronized void makeWindow(int width, int height, boolean fitToScreen, Map map, float FOV,
 			SaveMetadata metadataa, TexturePack texturePack, UseRenderer useRenderer, View... view)
 			throws SecurityException {
+		makeWindow(width, height, fitToScreen, map, FOV, metadataa, new WallTextureList(texturePack).getList(),
+				useRenderer, view);
+	}
+
+	/**
+	 * Calls the private constructor to create a new window, with textures that
+	 * were already decoded (for example by {@link WallTextureList#loadAsync()},
+	 * while the maze was generated).
+	 * 
+	 * @param width       the width of the {@code Window}.
+	 * @param height      the height of the {@code Window}
+	 * @param fitToScreen true if {@code Window} will fit the monitor size.
+	 * @param map         the {@link Map} of the game in which the player is placed.
+	 * @param FOV         the field of view of the player.
+	 * @param metadataa   the {@link SaveMetadata} of the game.
+	 * @param textures    the decoded textures of the walls.
+	 * @param useRenderer the renderer and the number of threads that will be used.
+	 * @param view        the view from the camera (only if opening a game save).
+	 * 
+	 * @throws SecurityException thrown if an instance already exists.
+	 */
+	public static synchronized void makeWindow(int width, int height, boolean fitToScreen, Map map, float FOV,
+			SaveMetadata metadataa, List<WallTexture> textures, UseRenderer useRenderer, View... view)
+			throws SecurityException {
 		if (window == null) {
-			window = new Window(width, height, fitToScreen, map, FOV, metadataa, texturePack, useRenderer, view);
+			window = new Window(width, height, fitToScreen, map, FOV, metadataa, textures, useRenderer, view);
 		} else
 			throw new SecurityException("Window has already been instantiated");
 	}
@@ -210,9 +233,13 @@ public class Window extends JFrame {
 	/**
 	 * {@code switchBuffer()} switches the buffers of the BufferStrategy. This
 	 * allows the next frame to be rendered inside a buffer of the buffer strategy,
-	 * and then it switches.
+	 * and then it switches. The last rendered frame is displayed.
+	 * <p>
+	 * Must not be called by other threads while frames are pipelined (see
+	 * {@link #startPresenting()}).
 	 */
 	public void switchBuffer() {
+		frames.acquire();
 		buffer = getBufferStrategy();
 		if (buffer == null) {
 			System.out.println("Creating a new buffer");
@@ -221,7 +248,7 @@ public class Window extends JFrame {
 		}
 		try {
 			graphics = buffer.getDrawGraphics();
-			graphics.drawImage(bufferImage, 0, 0, bufferImage.getWidth(), bufferImage.getHeight(), null);
+			graphics.drawImage(frames.getFrontImage(), 0, 0, null);
 		} finally {
 			graphics.dispose();
 		}
@@ -229,10 +256,66 @@ public class Window extends JFrame {
 
 	}
 
-	public void render() {
-		mover.update();
-		pixels = renderer.render(pixels);
-		bufferImage = (BufferedImage) ImageFromArray.getImage(pixels, width, height);
+	/**
+	 * Advances the simulation (the position of the player) by one tick.
+	 * 
+	 * @param delta the length of the tick (in seconds).
+	 */
+	public void tick(float delta) {
+		camera.update(delta);
+	}
+
+	/**
+	 * Renders the next frame directly into the back frame image, which is then
+	 * handed over to be displayed.
+	 * 
+	 * @param alpha how far the frame is between the last simulation tick and the
+	 *              next one (from 0 to 1). The view is interpolated accordingly.
+	 */
+	public void render(float alpha) {
+		camera.interpolate(alpha);
+		final Renderer next = nextRenderer.getAndSet(null);
+		if (next != null) {
+			// the old renderer is no longer rendering, so its threads can be released
+			final Renderer old = renderer;
+			renderer = next;
+			old.dispose();
+		}
+		if (Renderer.isPsychadelic()) {
+			// the trails are drawn over the previous frame, not an older one
+			frames.copyLastFrame();
+		}
+		renderer.render(frames.getBackPixels());
+		frames.publish();
+
+		final FramePresenter presenter = this.presenter;
+		if (presenter != null) {
+			presenter.framePublished();
+		}
+	}
+
+	/**
+	 * Starts the pipelined frame mode: the rendered frames are displayed by a
+	 * separate thread, while the next frame is being rendered. The rendering
+	 * thread must not call {@link #switchBuffer()} until
+	 * {@link #stopPresenting()} is called.
+	 */
+	public synchronized void startPresenting() {
+		if (presenter == null) {
+			presenter = new FramePresenter(this, frames);
+			presenter.start();
+		}
+	}
+
+	/**
+	 * Stops the pipelined frame mode, and waits for the presenting thread to
+	 * finish.
+	 */
+	public synchronized void stopPresenting() {
+		if (presenter != null) {
+			presenter.stop();
+			presenter = null;
+		}
 	}
 
 	@Override
@@ -262,7 +345,11 @@ public class Window extends JFrame {
 	}
 
 	/**
-	 * Hot-swap <code>renderer</code> with a different {@link Renderer}.
+	 * Hot-swap <code>renderer</code> with a different {@link Renderer}. Can be
+	 * called from any thread (such as the Swing thread of the menu): the new
+	 * renderer is created here, but it only replaces the old one on the thread
+	 * of the game loop, before the next frame. The old renderer is disposed there,
+	 * once it finished its last frame.
 	 * 
 	 * @param use     the {@link UseRenderer} from which a {@link Renderer} will be
 	 *                created
@@ -272,11 +359,13 @@ public class Window extends JFrame {
 	 *                                  {@link MultithreadedRendererDispatcher}.
 	 */
 	public final void swapRenderer(UseRenderer use, RendererDetails details) throws IllegalArgumentException {
-		if ((use.type == RendererType.CHUNK || use.type == RendererType.STRIP)
-				&& !(details instanceof MultithreadedRendererDetails)) {
+		if (use.type != RendererType.SINGLE_THREAD && !(details instanceof MultithreadedRendererDetails)) {
 			throw new IllegalArgumentException("RendererDetails must be MultithreadedRendererDetails");
 		}
-		renderer = RendererFactory.createFromEnum(use.type, details, camera);
+		final Renderer replaced = nextRenderer.getAndSet(RendererFactory.createFromEnum(use.type, details, camera));
+		if (replaced != null) {
+			replaced.dispose(); // swapped again before it rendered a single frame
+		}
 		System.out.printf("Creating new %s Renderer%n", use.type.toString());
 
 	}
@@ -27,5 +27,19 @@ package org.swisscheese.swisscheese.engine.imageEffects;
  * @version v1.0
  */
 public enum GammaState {
-	NORMAL, DARK, BRIGHT,;
+	NORMAL(1f), DARK(0.5f), BRIGHT(2f),;
+
+	private final float coefficient;
+
+	private GammaState(float coefficient) {
+		this.coefficient = coefficient;
+	}
+
+	/**
+	 * @return the coefficient of {@link ChangeGamma} for this state (1 if the
+	 *         image remains normal).
+	 */
+	public float getCoefficient() {
+		return coefficient;
+	}
 }
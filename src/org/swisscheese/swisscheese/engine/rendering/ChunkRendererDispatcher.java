@@ -24,8 +24,6 @@ import org.swisscheese.swisscheese.annotations.ThreadSafe;
 import org.swisscheese.swisscheese.engine.camera.Camera;
 import org.swisscheese.swisscheese.engine.camera.View;
 import org.swisscheese.swisscheese.engine.details.MultithreadedRendererDetails;
-import org.swisscheese.swisscheese.engine.imageEffects.ChangeGamma;
-import org.swisscheese.swisscheese.engine.imageEffects.GammaState;
 import org.swisscheese.swisscheese.map.Map;
 import org.swisscheese.swisscheese.texturePacks.TexturePack;
 
@@ -63,7 +61,7 @@ public class ChunkRendererDispatcher extends MultithreadedRendererDispatcher {
 		if (width % nChunks != 0 || nChunks > 16)
 			throw new IllegalArgumentException("Width must be devidable by nChunks and less than 16");
 		chunkSize = (int) (width / nChunks);
-		View view = camera.getView();
+		View view = camera.getRenderView();
 		for (int i = 0; i < nChunks; i++) {
 			chunkList.add(new RenderChunk(this, i * chunkSize, (i + 1) * chunkSize, view));
 		}
@@ -74,7 +72,7 @@ public class ChunkRendererDispatcher extends MultithreadedRendererDispatcher {
 		if (details.width % details.nThreads != 0 || details.nThreads > 16)
 			throw new IllegalArgumentException("Width must be devidable by nChunks and less than 16");
 		chunkSize = (int) (details.width / details.nThreads);
-		View view = camera.getView();
+		View view = camera.getRenderView();
 		for (int i = 0; i < details.nThreads; i++) {
 			chunkList.add(new RenderChunk(this, i * chunkSize, (i + 1) * chunkSize, view));
 		}
@@ -82,19 +80,8 @@ public class ChunkRendererDispatcher extends MultithreadedRendererDispatcher {
 
 	@Override
 	public int[] render(int[] pixels) {
-		if(!psychadelic) {
-		this.pixels = fillBackground(pixels);
-		if (state == GammaState.DARK) {
-			for (int i = 0; i < this.pixels.length; i++) {
-				this.pixels[i] = ChangeGamma.getColor(this.pixels[i], 0.5f);
-			}
-		} else if (state == GammaState.BRIGHT) {
-			for (int i = 0; i < this.pixels.length; i++) {
-				this.pixels[i] = ChangeGamma.getColor(this.pixels[i], 2f);
-			}
-		}
-		}
-		View view = camera.getView();
+		this.pixels = prepareBackground(pixels);
+		View view = camera.getRenderView();
 
 		// updating and loading futures.
 		for (int i = 0; i < chunkList.size(); i++) {
@@ -122,9 +109,13 @@ public class ChunkRendererDispatcher extends MultithreadedRendererDispatcher {
 		return this.pixels;
 	}
 
-	void insertValue(int value, int index) {
-		pixels[index] = value;
-
+	/**
+	 * Getter for the pixels array that is currently being rendered.
+	 * 
+	 * @return <code>pixels</code>.
+	 */
+	int[] getPixels() {
+		return pixels;
 	}
 
 }
@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.engine.rendering;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.swisscheese.swisscheese.annotations.ThreadSafe;
+import org.swisscheese.swisscheese.engine.camera.Camera;
+import org.swisscheese.swisscheese.engine.details.MultithreadedRendererDetails;
+import org.swisscheese.swisscheese.engine.details.RendererDetails;
+import org.swisscheese.swisscheese.engine.imageEffects.GammaState;
+import org.swisscheese.swisscheese.map.CellSource;
+import org.swisscheese.swisscheese.map.Map;
+import org.swisscheese.swisscheese.texturePacks.TexturePack;
+
+/**
+ * A Fork/Join Renderer dispatcher. This rendering strategy recursively splits
+ * the screen into {@link RenderTile} tasks, which are executed by a dedicated
+ * work-stealing {@link ForkJoinPool}.
+ * <p>
+ * The cost of a column is very uneven: columns close to a wall draw many
+ * texels, while columns looking down a long corridor spend their time stepping
+ * through the maze. With the static split of {@link ChunkRendererDispatcher},
+ * threads that finish early stay idle. Here an idle thread steals the
+ * remaining tiles from the busy ones.
+ * <p>
+ * The number of columns at which a tile stops splitting adapts to the cost of
+ * a column measured in the previous frames, so that a tile takes about
+ * {@value #TARGET_TILE_NANOS} nanoseconds. There is no limit on the number of
+ * threads, and the width does not need to be divisible by it. The
+ * {@code ForkJoinPool} is the only pool of this dispatcher (no
+ * {@link java.util.concurrent.ThreadPoolExecutor} is created).
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-04
+ * @since v1.0
+ * @version v1.0
+ */
+@ThreadSafe
+public class ForkJoinRendererDispatcher extends MultithreadedRendererDispatcher {
+	/** The time (in nanoseconds) that rendering a single tile should take. */
+	private static final long TARGET_TILE_NANOS = 50_000;
+	/** The minimum number of tiles per thread, so there is work to steal. */
+	private static final int TILES_PER_THREAD = 4;
+	/** Weight of the latest frame in the column cost average. */
+	private static final float COST_SMOOTHING = 0.25f;
+
+	/** The work-stealing pool that renders the tiles. */
+	private final ForkJoinPool forkJoinPool;
+	/** The width of the screen (in columns). */
+	private final int width;
+	/** The largest tile, so that every thread gets a few tiles. */
+	private final int maxThreshold;
+	/** Average time (in nanoseconds) a single thread spends on a column. */
+	private float columnNanos = 0;
+	/** Number of columns below which a tile is not split further. */
+	private volatile int threshold;
+
+	// frame state, published to the tiles by the pool
+	private int[] pixels;
+	private RendererDetails frameDetails;
+	private GammaState frameState;
+	private float xPos;
+	private float yPos;
+	private float xDir;
+	private float yDir;
+	private float xPlane;
+	private float yPlane;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	ForkJoinRendererDispatcher(float width, float height, TexturePack texturePack, Camera camera, Map map,
+			int nThreads) throws IllegalStateException {
+		super(width, height, texturePack, camera, map, nThreads);
+		forkJoinPool = new ForkJoinPool(nThreads);
+		this.width = (int) width;
+		maxThreshold = Math.max(1, this.width / (nThreads * TILES_PER_THREAD));
+		threshold = maxThreshold;
+	}
+
+	/**
+	 * A constructor from existing {@link MultithreadedRendererDetails}.
+	 *
+	 * @param details the details from which it is created
+	 * @param camera  camera used
+	 */
+	ForkJoinRendererDispatcher(MultithreadedRendererDetails details, Camera camera) {
+		super(details, camera);
+		forkJoinPool = new ForkJoinPool(details.nThreads);
+		width = (int) details.width;
+		maxThreshold = Math.max(1, width / (details.nThreads * TILES_PER_THREAD));
+		threshold = maxThreshold;
+	}
+
+	@Override
+	public int[] render(int[] pixels) {
+		this.pixels = prepareBackground(pixels);
+
+		view = camera.getRenderView();
+		frameDetails = getDetails();
+		frameState = getGammaState();
+		xPos = view.getxPos();
+		yPos = view.getyPos();
+		xDir = view.getxDir();
+		yDir = view.getyDir();
+		xPlane = view.getxPlane();
+		yPlane = view.getyPlane();
+
+		final long start = System.nanoTime();
+		forkJoinPool.invoke(new RenderTile(this, 0, width));
+		adaptThreshold(System.nanoTime() - start);
+
+		return this.pixels;
+	}
+
+	/**
+	 * Updates the average cost of a column with the time of the last frame, and
+	 * picks the tile size for the next frame from it.
+	 *
+	 * @param frameNanos the time (in nanoseconds) it took to render the frame.
+	 */
+	private void adaptThreshold(long frameNanos) {
+		// the columns were rendered in parallel.
+		final float measured = (float) frameNanos * forkJoinPool.getParallelism() / width;
+		columnNanos = (columnNanos == 0) ? measured
+				: columnNanos * (1 - COST_SMOOTHING) + measured * COST_SMOOTHING;
+
+		final int columns = (int) (TARGET_TILE_NANOS / Math.max(columnNanos, 1f));
+		threshold = Math.max(1, Math.min(columns, maxThreshold));
+	}
+
+	/**
+	 * Getter for the number of columns below which a {@link RenderTile} renders
+	 * its columns instead of splitting.
+	 *
+	 * @return threshold
+	 */
+	int getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * Renders the columns from <code>fromIndex</code> (inclusive) to
+	 * <code>toIndex</code> (exclusive) of the current frame.
+	 *
+	 * @param fromIndex the from index (inclusive).
+	 * @param toIndex   the to index (exclusive).
+	 */
+	void renderColumns(int fromIndex, int toIndex) {
+		final CellSource cells = frameDetails.maze.cursor();
+		for (int x = fromIndex; x < toIndex; x++) {
+			RayCaster.castColumn(x, xPos, yPos, xDir, yDir, xPlane, yPlane, frameDetails, cells, rays, frameState,
+					pixels);
+		}
+	}
+
+	/**
+	 * Shuts down the {@link ForkJoinPool}.
+	 */
+	@Override
+	public void dispose() {
+		forkJoinPool.shutdownNow();
+		super.dispose();
+	}
+}
@@ -29,6 +29,8 @@ import javax.naming.InsufficientResourcesException;
 
 import org.swisscheese.swisscheese.engine.camera.Camera;
 import org.swisscheese.swisscheese.engine.details.MultithreadedRendererDetails;
+import org.swisscheese.swisscheese.engine.imageEffects.ChangeGamma;
+import org.swisscheese.swisscheese.engine.imageEffects.GammaState;
 import org.swisscheese.swisscheese.map.Map;
 import org.swisscheese.swisscheese.texturePacks.TexturePack;
 
@@ -52,7 +54,10 @@ import org.swisscheese.swisscheese.texturePacks.TexturePack;
  * @version v1.0
  */
 public abstract class MultithreadedRendererDispatcher extends Renderer {
-	/** ThreadPoolExecutor that contains threads that carry-out rendering. */
+	/**
+	 * ThreadPoolExecutor that contains threads that carry-out rendering (null
+	 * for dispatchers that bring their own pool).
+	 */
 	protected final ThreadPoolExecutor pool;
 	/** Stores Futures of rendering operations. */
 	protected final Deque<Future<Void>> futureQueue = new ArrayDeque<>();
@@ -60,6 +65,8 @@ public abstract class MultithreadedRendererDispatcher extends Renderer {
 	protected static ArrayBlockingQueue<Runnable> threadPoolQueue;
 	/** The amount of threads used to create <code>pool</code>. */
 	private final int nThreads;
+	/** The most threads of <code>pool</code>, unless more are asked for. */
+	private static final int MAX_POOL_SIZE = 64;
 
 	/**
 	 * Constructor for <code>MultithreadedRendererDispatcher</code>.
@@ -80,7 +87,8 @@ public abstract class MultithreadedRendererDispatcher extends Renderer {
 		super(width, height, texturePack, camera, map);
 		this.nThreads = nThreads;
 		threadPoolQueue = new ArrayBlockingQueue<>(arrayBlockingQueueCapacity);
-		pool = new ThreadPoolExecutor(nThreads, 64, 100, TimeUnit.MILLISECONDS, threadPoolQueue);
+		pool = new ThreadPoolExecutor(nThreads, Math.max(nThreads, MAX_POOL_SIZE), 100, TimeUnit.MILLISECONDS,
+				threadPoolQueue);
 	}
 
 	/**
@@ -95,7 +103,41 @@ public abstract class MultithreadedRendererDispatcher extends Renderer {
 		super(details.getRegularDetails(), camera);
 		this.nThreads = details.nThreads;
 		threadPoolQueue = new ArrayBlockingQueue<>(arrayBlockingQueueCapacity);
-		pool = new ThreadPoolExecutor(nThreads, 64, 100, TimeUnit.MILLISECONDS, threadPoolQueue);
+		pool = new ThreadPoolExecutor(nThreads, Math.max(nThreads, MAX_POOL_SIZE), 100, TimeUnit.MILLISECONDS,
+				threadPoolQueue);
+	}
+
+	/**
+	 * Constructor for a dispatcher that runs its work units on a pool of its own
+	 * (such as a {@link java.util.concurrent.ForkJoinPool}). No
+	 * {@link ThreadPoolExecutor} is created, and <code>pool</code> is null.
+	 * 
+	 * @param width       the width of the screen
+	 * @param height      the height of the screen
+	 * @param texturePack the {@link TexturePack} used.
+	 * @param camera      the {@link Camera} used.
+	 * @param map         the {@link Map} used.
+	 * @param nThreads    the number of threads of the dispatcher.
+	 */
+	protected MultithreadedRendererDispatcher(float width, float height, TexturePack texturePack, Camera camera,
+			Map map, int nThreads) {
+		super(width, height, texturePack, camera, map);
+		this.nThreads = nThreads;
+		pool = null;
+	}
+
+	/**
+	 * A constructor from existing {@link MultithreadedRendererDetails}, for a
+	 * dispatcher that runs its work units on a pool of its own. No
+	 * {@link ThreadPoolExecutor} is created, and <code>pool</code> is null.
+	 * 
+	 * @param details the details from which it is created
+	 * @param camera  camera used
+	 */
+	protected MultithreadedRendererDispatcher(MultithreadedRendererDetails details, Camera camera) {
+		super(details.getRegularDetails(), camera);
+		this.nThreads = details.nThreads;
+		pool = null;
 	}
 
 	/**
@@ -106,6 +148,41 @@ public abstract class MultithreadedRendererDispatcher extends Renderer {
 	@Override
 	public abstract int[] render(int[] pixels);
 
+	/**
+	 * Fills the background of <code>pixels</code> (unless the renderer is
+	 * psychadelic) and darkens or brightens it based on the {@link GammaState} of
+	 * {@link Renderer}. Walls are shaded by the rendering units themselves.
+	 * 
+	 * @param pixels pixels array
+	 * @return pixels with filled and shaded background.
+	 * @see Renderer#fillBackground(int[])
+	 */
+	protected final int[] prepareBackground(int[] pixels) {
+		if (!psychadelic) {
+			fillBackground(pixels);
+			if (state == GammaState.DARK) {
+				for (int i = 0; i < pixels.length; i++) {
+					pixels[i] = ChangeGamma.getColor(pixels[i], 0.5f);
+				}
+			} else if (state == GammaState.BRIGHT) {
+				for (int i = 0; i < pixels.length; i++) {
+					pixels[i] = ChangeGamma.getColor(pixels[i], 2f);
+				}
+			}
+		}
+		return pixels;
+	}
+
+	/**
+	 * Shuts down the thread-pool of the dispatcher (if it has one).
+	 */
+	@Override
+	public void dispose() {
+		if (pool != null) {
+			pool.shutdownNow();
+		}
+	}
+
 	/**
 	 * Makes a new {@link MultithreadedRendererDetails} from the
 	 * {@link #getDetails()} method of the superclass along with the number of
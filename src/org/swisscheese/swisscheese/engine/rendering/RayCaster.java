@@ -0,0 +1,272 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.engine.rendering;
+
+import org.swisscheese.swisscheese.annotations.ThreadSafe;
+import org.swisscheese.swisscheese.engine.details.RendererDetails;
+import org.swisscheese.swisscheese.engine.imageEffects.GammaState;
+import org.swisscheese.swisscheese.engine.texture.TextureSampler;
+import org.swisscheese.swisscheese.engine.texture.WallTexture;
+import org.swisscheese.swisscheese.map.CellSource;
+import org.swisscheese.swisscheese.map.MazeGrid;
+
+/**
+ * The ray-casting kernel that is shared by all renderers. {@code RayCaster}
+ * casts a single vertical scan of the screen and writes the textured wall
+ * strip straight into the pixels array.
+ * <p>
+ * The kernel only uses primitive {@code float} and {@code int} values, so no
+ * objects are created while casting. The old per-column
+ * {@code GeomVector2D<Float>} math created several temporary objects for every
+ * column of every frame, and the garbage caused noticeable GC pauses.
+ * <p>
+ * All state is kept in local variables, so the kernel can be called by many
+ * threads at once as long as they write to different columns.
+ * <p>
+ * If the maze is a {@link MazeGrid}, the ray steps through its flat array by
+ * index deltas, with a single array load per step, and jumps over open areas
+ * through the distance field of the grid.
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-02
+ * @since v1.0
+ * @version v1.0
+ * @see <a href="https://lodev.org/cgtutor/raycasting.html">Ray-Casting</a>
+ */
+@ThreadSafe
+final class RayCaster {
+
+	/**
+	 * Fewest empty steps in every direction for which the ray jumps through the
+	 * distance field of a {@link MazeGrid}. Shorter jumps cost more than the steps
+	 * they skip. In the corridors of a maze every empty cell is next to a wall, so
+	 * the ray never jumps there.
+	 */
+	private static final int MIN_JUMP = 8;
+
+	/** A private constructor - do not instantiate */
+	private RayCaster() {
+		throw new SecurityException("RayCaster not meant to be instantiated");
+	}
+
+	/**
+	 * Casts the ray of the scan line {@code x} and draws the wall that it hits
+	 * into {@code pixels}. The background is not touched.
+	 *
+	 * @param x       the x-location of the scan line on the screen.
+	 * @param xPos    x-location of the player on the map.
+	 * @param yPos    y-location of the player on the map.
+	 * @param xDir    x component of the direction vector of the camera.
+	 * @param yDir    y component of the direction vector of the camera.
+	 * @param xPlane  x component of the camera plane vector.
+	 * @param yPlane  y component of the camera plane vector.
+	 * @param details the {@link RendererDetails} (screen size, textures, maze).
+	 * @param maze    the cells of the maze: a {@link CellSource#cursor()} of the
+	 *                maze of <code>details</code>, used by the caller alone (one
+	 *                for every rendering unit, for the whole frame).
+	 * @param rays    the {@link RayTable} for the width of the screen.
+	 * @param state   the {@link GammaState} applied to every wall pixel.
+	 *                {@link GammaState#NORMAL} leaves the color unchanged.
+	 * @param pixels  the pixels array into which the strip is drawn.
+	 */
+	static void castColumn(int x, float xPos, float yPos, float xDir, float yDir, float xPlane, float yPlane,
+			RendererDetails details, CellSource maze, RayTable rays, GammaState state, int[] pixels) {
+		final int width = (int) details.width;
+		final float height = details.height;
+
+		// the position of this scan line on the camera plane relative to POV
+		final float scanLine = rays.cameraX(x);
+
+		// where the ray going.
+		final float xRayDir = xDir + xPlane * scanLine;
+		final float yRayDir = yDir + yPlane * scanLine;
+
+		// distance between two walls, measured along the direction of the camera
+		// (infinite if the ray is parallel to the walls)
+		final float xDeltaDist = Math.abs(1 / xRayDir);
+		final float yDeltaDist = Math.abs(1 / yRayDir);
+
+		// position on the map
+		int xMap = (int) xPos;
+		int yMap = (int) yPos;
+
+		// length of a ray from the current position to next x or y-side
+		float xSideDistance;
+		float ySideDistance;
+
+		// direction to go in x and y
+		final int xStep;
+		final int yStep;
+
+		// calculating in which direction ray is going and initial distance.
+		// in x direction:
+		if (xRayDir < 0) {
+			xStep = -1;
+			xSideDistance = (xPos - xMap) * xDeltaDist;
+		} else {
+			xStep = 1;
+			xSideDistance = (xMap + 1f - xPos) * xDeltaDist;
+		}
+
+		// in y direction:
+		if (yRayDir < 0) {
+			yStep = -1;
+			ySideDistance = (yPos - yMap) * yDeltaDist;
+		} else {
+			yStep = 1;
+			ySideDistance = (yMap + 1f - yPos) * yDeltaDist;
+		}
+
+		// the wall is horizontal or vertical relative to map (top-down)
+		boolean wallVertical;
+		// the value of the cell that was hit
+		int cell;
+
+		// calculating distance to wall:
+		if (maze instanceof MazeGrid) {
+			// stepping through the flat array, which has a solid border
+			final MazeGrid grid = (MazeGrid) maze;
+			final byte[] cells = grid.getCells();
+			final int xStepIndex = xStep * grid.getStride();
+			int index = grid.indexOf(xMap, yMap);
+			cell = cells[index];
+			int safe;
+			float limit;
+			int xSteps;
+			int ySteps;
+			do {
+				// an empty cell is the negative distance to the nearest wall, so the
+				// cells less than -cell steps away in x and in y are all empty
+				safe = -cell - 1;
+				if (safe >= MIN_JUMP) {
+					// jumping over every boundary crossed before the ray would go
+					// more than safe steps in x or in y
+					limit = Math.min(xSideDistance + safe * xDeltaDist, ySideDistance + safe * yDeltaDist);
+					xSteps = crossings(xSideDistance, Math.abs(xRayDir), limit, safe);
+					ySteps = crossings(ySideDistance, Math.abs(yRayDir), limit, safe);
+					xSideDistance += xSteps * xDeltaDist;
+					ySideDistance += ySteps * yDeltaDist;
+					index += xSteps * xStepIndex + ySteps * yStep;
+				}
+
+				// going closer towards the wall
+				if (xSideDistance < ySideDistance) {
+					xSideDistance += xDeltaDist;
+					index += xStepIndex;
+					wallVertical = false;
+				} else {
+					ySideDistance += yDeltaDist;
+					index += yStep;
+					wallVertical = true;
+				}
+			} while ((cell = cells[index]) <= 0);// ray has hit the wall
+		} else {
+			do {
+				// going closer towards the wall
+				if (xSideDistance < ySideDistance) {
+					xSideDistance += xDeltaDist;
+					xMap += xStep;
+					wallVertical = false;
+				} else {
+					ySideDistance += yDeltaDist;
+					yMap += yStep;
+					wallVertical = true;
+				}
+			} while ((cell = maze.getCell(xMap, yMap)) <= 0);// ray has hit the wall
+		}
+
+		// distance from the player to the wall (the last step went past the wall)
+		final float distanceToWall = (wallVertical) ? ySideDistance - yDeltaDist : xSideDistance - xDeltaDist;
+
+		// calculating wall line length from wall distance (perspective)
+		final int wallLength = (int) ((distanceToWall > 0) ? Math.abs(height / distanceToWall) : height);
+
+		// wall line start point:
+		int wallStart = (int) (-wallLength / 2 + height / 2);
+		wallStart = (wallStart < 0) ? 0 : wallStart; // if it's off the screen
+
+		// wall line end point:
+		int wallEnd = (int) (wallLength / 2 + height / 2);
+		wallEnd = (wallEnd > height) ? (int) height : wallEnd; // off the screen
+
+		// getting texture from the wall
+		final WallTexture texture = details.wallTextures.get(cell - 1);
+		texture.doAction();
+		float wallHit = (wallVertical) ? (xPos + distanceToWall * xRayDir) : (yPos + distanceToWall * yRayDir);
+		wallHit -= Math.floor(wallHit);
+
+		// caching texture size and texels (the mip level of the height of the wall)
+		final TextureSampler sampler = texture.getSampler(wallLength);
+		final int textureSize = sampler.getSize();
+		final int textureShift = sampler.getShift();
+		final int textureMask = sampler.getMask();
+		// shaded for the side of the wall and the gamma of the screen
+		final int[] texels = sampler.getTexels(state, wallVertical);
+
+		// stretching the texture according to the wall shape (perspective)
+		// calculating x coordinate of the texture
+		int xTexture = (int) (wallHit * textureSize);
+		if ((!wallVertical && xRayDir > 0) || (wallVertical && yRayDir < 0))
+			xTexture = textureSize - xTexture - 1;
+
+		if (wallStart >= wallEnd) {
+			return; // too far away to be seen
+		}
+		// the texels are stored column by column, so the strip is contiguous
+		final int textureColumn = xTexture << textureShift;
+
+		// y coordinate of the texture in 16.16 fixed point: one division for the
+		// step of the column, and only additions for the pixels. The start is
+		// measured from the real top of the wall, so the texture is not squashed
+		// when the wall is clipped by the top of the screen.
+		final int textureStep = (textureSize << 16) / wallLength;
+		int yFixed = (int) Math.max(0L,
+				((long) (wallStart * 2 - height + wallLength) << (textureShift + 16)) / (2L * wallLength));
+
+		int yTexture;
+		int pixel = x + wallStart * width;
+		for (int y = wallStart; y < wallEnd; y++) {
+			yTexture = (yFixed >> 16) & textureMask;
+			yFixed += textureStep;
+
+			pixels[pixel] = texels[textureColumn + yTexture];
+			pixel += width;
+		}
+	}
+
+	/**
+	 * Counts the boundaries in one direction that a ray crosses before a distance.
+	 *
+	 * @param sideDistance the distance to the next boundary.
+	 * @param rayDir       the absolute component of the ray direction (the
+	 *                     inverse of the distance between two boundaries).
+	 * @param limit        the distance before which the boundaries are counted.
+	 * @param max          the largest count.
+	 * @return the number of boundaries crossed before {@code limit}.
+	 */
+	private static int crossings(float sideDistance, float rayDir, float limit, int max) {
+		if (sideDistance >= limit) {
+			return 0;
+		}
+		final float boundaries = (limit - sideDistance) * rayDir;
+		int count = (int) boundaries;
+		if (count < boundaries) {
+			count++; // rounding up
+		}
+		return (count < max) ? count : max;
+	}
+}
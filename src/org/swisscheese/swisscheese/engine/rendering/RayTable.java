@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.engine.rendering;
+
+import org.swisscheese.swisscheese.annotations.Immutable;
+
+/**
+ * A table of the camera-space position of every scan line of the screen. The
+ * position of scan line <code>x</code> on the camera plane is
+ * <code>2 * x / width - 1</code>, from -1 (left edge) to 1 (right edge).
+ * <p>
+ * The table only depends on the width of the screen; the field of view is the
+ * length of the camera plane vector of the {@code View}, which is multiplied
+ * with the table by {@link RayCaster}. A table is created by every
+ * {@link Renderer}, and the last table is reused as long as the width does not
+ * change.
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-05
+ * @since v1.0
+ * @version v1.0
+ */
+@Immutable
+final class RayTable {
+	/** The last created table. */
+	private static volatile RayTable cached;
+
+	/** Width of the screen. */
+	private final int width;
+	/** Position of each scan line on the camera plane. */
+	private final float[] cameraX;
+
+	/**
+	 * Constructor. Use {@link #of(int)}.
+	 *
+	 * @param width width of the screen.
+	 */
+	private RayTable(int width) {
+		this.width = width;
+		cameraX = new float[width];
+		for (int x = 0; x < width; x++) {
+			cameraX[x] = 2f * x / width - 1f;
+		}
+	}
+
+	/**
+	 * Returns the table for a screen of the given width. The table is only
+	 * computed if the width is different from the last table.
+	 *
+	 * @param width width of the screen.
+	 * @return the {@code RayTable} for <code>width</code>.
+	 */
+	static RayTable of(int width) {
+		RayTable table = cached;
+		if (table == null || table.width != width) {
+			table = new RayTable(width);
+			cached = table;
+		}
+		return table;
+	}
+
+	/**
+	 * Getter for the position of a scan line on the camera plane.
+	 *
+	 * @param x the x-location of the scan line on the screen.
+	 * @return the position on the camera plane, from -1 to 1.
+	 */
+	float cameraX(int x) {
+		return cameraX[x];
+	}
+}
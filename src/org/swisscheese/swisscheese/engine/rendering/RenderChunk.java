@@ -21,9 +21,8 @@ import java.util.concurrent.Callable;
 import org.swisscheese.swisscheese.annotations.ThreadSafe;
 import org.swisscheese.swisscheese.engine.camera.View;
 import org.swisscheese.swisscheese.engine.details.RendererDetails;
-import org.swisscheese.swisscheese.engine.imageEffects.ChangeGamma;
 import org.swisscheese.swisscheese.engine.imageEffects.GammaState;
-import org.swisscheese.swisscheese.math.GeomVector2D;
+import org.swisscheese.swisscheese.map.CellSource;
 
 /**
  * Renders a chunk (multiple lines at once). Dispatched by
@@ -49,36 +48,6 @@ public class RenderChunk implements Callable<Void> {
 	/** Details object. */
 	private RendererDetails details = Renderer.getDetails();
 
-	// reused render variables
-	private GeomVector2D<Float> dir;
-	private GeomVector2D<Float> plane;
-	// Does not make sense to use GeomVector2D for pos
-	private float xPos;
-	private float yPos;
-	private float scanLine;
-	private int xMap;
-	private int yMap;
-	// private length of a ray from the current position to next x or y-side
-	private double xSideDistance;
-	private double ySideDistance;
-	private double distanceToWall;
-	// direction to go in x and y
-	private int xStep;
-	private int yStep;
-	private int wallLength; // the length of wall on scanLine
-	private int wallStart; // y coordinate on scanLine where the wall starts.
-	private int wallEnd;// y coordinate on scanLine where the wall ends.
-	private int textureType; // type of texture (number in map wall)
-	private double wallHit; // point where the ray hits the wall
-	private int xTexture;
-	private int yTexture;
-	private int rgb; // color of a pixel
-	// the wall is horizontal or vertical relative to map (top-down)
-	private boolean wallVertical;
-	private GeomVector2D<Float> rayDir; // ray direction vector
-	private GeomVector2D<Float> deltaDist; // difference in distance
-	// end reused variables
-
 	/**
 	 * Constructor
 	 * 
@@ -111,108 +80,20 @@ public class RenderChunk implements Callable<Void> {
 	 */
 	@Override
 	public Void call() throws Exception {
-		dir = view.getDir();
-		plane = view.getPlane();
-		xPos = view.getxPos();
-		yPos = view.getyPos();
-
+		// caching data from view:
+		final float xPos = view.getxPos();
+		final float yPos = view.getyPos();
+		final float xDir = view.getxDir();
+		final float yDir = view.getyDir();
+		final float xPlane = view.getxPlane();
+		final float yPlane = view.getyPlane();
+
+		final int[] pixels = parent.getPixels();
+		final GammaState state = Renderer.getGammaState();
+		final CellSource cells = details.maze.cursor();
 		for (int x = fromIndex; x < toIndex; x++) {
-			scanLine = 2 * x / details.width - 1f;
-			wallVertical = false;
-
-			// position on the map; can't move out of for loop for some reason
-			xMap = (int) xPos;
-			yMap = (int) yPos;
-
-			// where the ray going.
-			rayDir = dir.add(plane.multiplyScalar(scanLine));
-
-			// distance between two walls
-			deltaDist = new GeomVector2D<Float>(
-					(float) Math.sqrt(1 + Math.pow(rayDir.getY(), 2) / Math.pow(rayDir.getX(), 2)),
-					(float) Math.sqrt(1 + Math.pow(rayDir.getX(), 2) / Math.pow(rayDir.getY(), 2)));
-
-			// calculating in which direction ray is going and initial distance.
-			// in x direction:
-			if (rayDir.getX() < 0) {
-				xStep = -1;
-				xSideDistance = (xPos - xMap) * deltaDist.getX();
-			} else {
-				xStep = 1;
-				xSideDistance = (xMap + 1d - xPos) * deltaDist.getX();
-			}
-
-			// in y direction:
-			if (rayDir.getY() < 0) {
-				yStep = -1;
-				ySideDistance = (yPos - yMap) * deltaDist.getY();
-			} else {
-				yStep = 1;
-				ySideDistance = (yMap + 1d - yPos) * deltaDist.getY();
-			}
-
-			// calculating distance to wall:
-			do {
-				// going closer towards the wall
-				if (xSideDistance < ySideDistance) {
-					xSideDistance += deltaDist.getX();
-					xMap += xStep;
-					wallVertical = false;
-				} else {
-					ySideDistance += deltaDist.getY();
-					yMap += yStep;
-					wallVertical = true;
-				}
-			} while (details.maze[xMap][yMap] <= 0);// ray has hit the wall
-
-			// distance from the player to the wall
-			distanceToWall = (wallVertical) ? Math.abs((yMap - yPos + (1 - yStep) / 2) / rayDir.getY())
-					: Math.abs((xMap - xPos + (1 - xStep) / 2) / rayDir.getX());
-
-			// calculating wall line length from wall distance (perspective)
-			wallLength = (int) ((distanceToWall > 0) ? Math.abs(details.height / distanceToWall) : details.height);
-
-			// wall line start point:
-			wallStart = (int) (-wallLength / 2 + details.height / 2);
-			wallStart = (wallStart < 0) ? 0 : wallStart; // if it's off the screen
-
-			// wall line end point:
-			wallEnd = (int) (wallLength / 2 + details.height / 2);
-			wallEnd = (wallEnd > details.height) ? (int) details.height : wallEnd; // off the screen
-			// getting textureType from the wall
-			textureType = details.maze[Math.abs(xMap)][Math.abs(yMap)] - 1;
-			details.wallTextures.get(textureType).doAction();
-			wallHit = (wallVertical) ? (xPos + ((yMap - yPos + (1 - yStep) / 2) / rayDir.getY()) * rayDir.getX())
-					: (yPos + ((xMap - xPos + (1 - xStep) / 2) / rayDir.getX()) * rayDir.getY());
-			wallHit -= Math.floor(wallHit);
-
-			// caching texture size
-			final int textureSize = details.wallTextures.get(textureType).getSize();
-
-			// stretching the texture according to the wall shape (perspective)
-			// calculating x coordinate of the texture
-			xTexture = (int) (wallHit * (textureSize));
-
-			if ((!wallVertical && rayDir.getX() > 0) || (wallVertical && rayDir.getY() < 0))
-				xTexture = textureSize - xTexture - 1;
-			// calculating y coordinate of the texture
-			for (int y = wallStart; y < wallEnd; y++) {
-				yTexture = (((int) (y * 2 - details.height + wallLength) << 6) / wallLength) / 2;
-
-				// getting a color from texture
-				rgb = details.wallTextures.get(textureType).getImage().getPixels()[xTexture + (yTexture * textureSize)];
-				// darkening some walls for 3D effect, 0.6 works the best IMO
-				if (wallVertical)
-					rgb = ChangeGamma.getColor(rgb, 0.6f);
-				
-				//Darkening or brightening image (for menu)
-				if (Renderer.getGammaState() == GammaState.DARK) {
-					rgb = ChangeGamma.getColor(rgb, 0.5f);
-				} else if (Renderer.getGammaState() == GammaState.BRIGHT) {
-					rgb = ChangeGamma.getColor(rgb, 2f);
-				}
-				parent.insertValue(rgb, (int) (x + y * details.width));
-			}
+			RayCaster.castColumn(x, xPos, yPos, xDir, yDir, xPlane, yPlane, details, cells, parent.rays, state,
+					pixels);
 		}
 		return null;
 	}
@@ -21,9 +21,6 @@ import java.util.concurrent.Callable;
 import org.swisscheese.swisscheese.annotations.Immutable;
 import org.swisscheese.swisscheese.engine.camera.View;
 import org.swisscheese.swisscheese.engine.details.RendererDetails;
-import org.swisscheese.swisscheese.engine.imageEffects.ChangeGamma;
-import org.swisscheese.swisscheese.engine.imageEffects.GammaState;
-import org.swisscheese.swisscheese.math.GeomVector2D;
 
 /**
  * A class for rendering individual vertical scans of the screen. Will be ran by
@@ -39,7 +36,6 @@ import org.swisscheese.swisscheese.math.GeomVector2D;
  */
 @Immutable
 public class RenderStrip implements Callable<Void> {
-	private static RendererDetails details = Renderer.getDetails();
 	private final int stripNumber;
 	private final View view;
 	private final StripRendererDispatcher parent;
@@ -67,146 +63,10 @@ public class RenderStrip implements Callable<Void> {
 	 */
 	@Override
 	public Void call() throws Exception {
-		// caching data from view:
-		details = Renderer.getDetails();
-		GeomVector2D<Float> dir = view.getDir();
-		GeomVector2D<Float> plane = view.getPlane();
-
-		// Does not make sense to use GeomVector2D for pos
-		final float xPos = view.getxPos();
-		final float yPos = view.getyPos();
-
-		float scanLine;
-		int xMap;
-		int yMap;
-
-		// length of a ray from the current position to next x or y-side
-		double xSideDistance;
-		double ySideDistance;
-
-		double distanceToWall;
-
-		// direction to go in x and y
-		int xStep;
-		int yStep;
-
-		int wallLength; // the length of wall on scanLine
-		int wallStart; // y coordinate on scanLine where the wall starts.
-		int wallEnd;// y coordinate on scanLine where the wall ends.
-
-		int textureType; // type of texture (number in map wall)
-
-		double wallHit; // point where the ray hits the wall
-
-		int xTexture;
-		int yTexture;
-
-		int rgb; // color of a pixel
-
-		// the wall is horizontal or vertical relative to map (top-down)
-		boolean wallVertical;
-
-		GeomVector2D<Float> rayDir; // ray direction vector
-		GeomVector2D<Float> deltaDist; // difference in distance
-
-		// the position of this scan line on the camera plane relative to POV
-		scanLine = 2 * stripNumber / details.width - 1f;
-		wallVertical = false;
-
-		// position on the map; can't move out of for loop for some reason
-		xMap = (int) xPos;
-		yMap = (int) yPos;
-
-		// where the ray going.
-		rayDir = dir.add(plane.multiplyScalar(scanLine));
-
-		// distance between two walls
-		deltaDist = new GeomVector2D<Float>(
-				(float) Math.sqrt(1 + Math.pow(rayDir.getY(), 2) / Math.pow(rayDir.getX(), 2)),
-				(float) Math.sqrt(1 + Math.pow(rayDir.getX(), 2) / Math.pow(rayDir.getY(), 2)));
-
-		// calculating in which direction ray is going and initial distance.
-		// in x direction:
-		if (rayDir.getX() < 0) {
-			xStep = -1;
-			xSideDistance = (xPos - xMap) * deltaDist.getX();
-		} else {
-			xStep = 1;
-			xSideDistance = (xMap + 1d - xPos) * deltaDist.getX();
-		}
-
-		// in y direction:
-		if (rayDir.getY() < 0) {
-			yStep = -1;
-			ySideDistance = (yPos - yMap) * deltaDist.getY();
-		} else {
-			yStep = 1;
-			ySideDistance = (yMap + 1d - yPos) * deltaDist.getY();
-		}
-
-		// calculating distance to wall:
-		do {
-			// going closer towards the wall
-			if (xSideDistance < ySideDistance) {
-				xSideDistance += deltaDist.getX();
-				xMap += xStep;
-				wallVertical = false;
-			} else {
-				ySideDistance += deltaDist.getY();
-				yMap += yStep;
-				wallVertical = true;
-			}
-		} while (details.maze[xMap][yMap] <= 0);// ray has hit the wall
-
-		// distance from the player to the wall
-		distanceToWall = (wallVertical) ? Math.abs((yMap - yPos + (1 - yStep) / 2) / rayDir.getY())
-				: Math.abs((xMap - xPos + (1 - xStep) / 2) / rayDir.getX());
-
-		// calculating wall line length from wall distance (perspective)
-		wallLength = (int) ((distanceToWall > 0) ? Math.abs(details.height / distanceToWall) : details.height);
-
-		// wall line start point:
-		wallStart = (int) (-wallLength / 2 + details.height / 2);
-		wallStart = (wallStart < 0) ? 0 : wallStart; // if it's off the screen
-
-		// wall line end point:
-		wallEnd = (int) (wallLength / 2 + details.height / 2);
-		wallEnd = (wallEnd > details.height) ? (int) details.height : wallEnd; // off the screen
-		// getting textureType from the wall
-		textureType = details.maze[Math.abs(xMap)][Math.abs(yMap)] - 1;
-		details.wallTextures.get(textureType).doAction();
-		wallHit = (wallVertical) ? (xPos + ((yMap - yPos + (1 - yStep) / 2) / rayDir.getY()) * rayDir.getX())
-				: (yPos + ((xMap - xPos + (1 - xStep) / 2) / rayDir.getX()) * rayDir.getY());
-		wallHit -= Math.floor(wallHit);
-
-		// caching texture size
-		final int textureSize = details.wallTextures.get(textureType).getSize();
-
-		// stretching the texture according to the wall shape (perspective)
-		// calculating x coordinate of the texture
-		xTexture = (int) (wallHit * (textureSize));
-
-		if ((!wallVertical && rayDir.getX() > 0) || (wallVertical && rayDir.getY() < 0))
-			xTexture = textureSize - xTexture - 1;
-		// calculating y coordinate of the texture
-		for (int y = wallStart; y < wallEnd; y++) {
-			yTexture = (((int) (y * 2 - details.height + wallLength) << 6) / wallLength) / 2;
-
-			// getting a color from texture
-			rgb = details.wallTextures.get(textureType).getImage().getPixels()[xTexture + (yTexture * textureSize)];
-			// darkening some walls for 3D effect, 0.6 works the best IMO
-			if (wallVertical)
-				rgb = ChangeGamma.getColor(rgb, 0.6f);
-			
-			//Darkening or brightening image (for menu)
-			if (Renderer.getGammaState() == GammaState.DARK) {
-				rgb = ChangeGamma.getColor(rgb, 0.5f);
-			} else if (Renderer.getGammaState() == GammaState.BRIGHT) {
-				rgb = ChangeGamma.getColor(rgb, 2f);
-			}
-
-			parent.insertValue(rgb, (int) (stripNumber + y * details.width));
-		}
+		final RendererDetails details = Renderer.getDetails();
+		RayCaster.castColumn(stripNumber, view.getxPos(), view.getyPos(), view.getxDir(), view.getyDir(),
+				view.getxPlane(), view.getyPlane(), details, details.maze.cursor(), parent.rays,
+				Renderer.getGammaState(), parent.getPixels());
 		return null;
 	}
 
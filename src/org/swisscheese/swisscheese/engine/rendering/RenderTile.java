@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.engine.rendering;
+
+import java.util.concurrent.RecursiveAction;
+
+import org.swisscheese.swisscheese.annotations.Immutable;
+
+/**
+ * Renders a tile (a range of columns) of the screen. Dispatched by
+ * {@link ForkJoinRendererDispatcher}.
+ * <p>
+ * A tile that is wider than the threshold of the dispatcher is split in half,
+ * and both halves are forked.
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-04
+ * @since v1.0
+ * @version v1.0
+ */
+@Immutable
+class RenderTile extends RecursiveAction {
+	private static final long serialVersionUID = -2371862618305930554L;
+	/** Parent dispatcher of this rendering unit. */
+	private final ForkJoinRendererDispatcher parent;
+	/** The start index of {@code RenderTile} (inclusive). */
+	private final int fromIndex;
+	/** The end index of {@code RenderTile} (exclusive). */
+	private final int toIndex;
+
+	/**
+	 * Constructor
+	 *
+	 * @param parent    the parent {@link ForkJoinRendererDispatcher}.
+	 * @param fromIndex the from index (inclusive).
+	 * @param toIndex   the to index (exclusive).
+	 */
+	RenderTile(ForkJoinRendererDispatcher parent, int fromIndex, int toIndex) {
+		this.parent = parent;
+		this.fromIndex = fromIndex;
+		this.toIndex = toIndex;
+	}
+
+	@Override
+	protected void compute() {
+		if (toIndex - fromIndex <= parent.getThreshold()) {
+			parent.renderColumns(fromIndex, toIndex);
+		} else {
+			final int middle = (fromIndex + toIndex) >>> 1;
+			invokeAll(new RenderTile(parent, fromIndex, middle), new RenderTile(parent, middle, toIndex));
+		}
+	}
+}
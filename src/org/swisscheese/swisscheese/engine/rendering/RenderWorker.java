@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.engine.rendering;
+
+import java.util.concurrent.Phaser;
+
+import org.swisscheese.swisscheese.annotations.ThreadSafe;
+
+/**
+ * A long-lived rendering unit that owns a fixed range of columns. Dispatched
+ * once by {@link WorkerPoolRendererDispatcher}.
+ * <p>
+ * Every frame, the worker waits on the frame barrier until the dispatcher
+ * releases it, renders its columns, and arrives at the barrier again. The
+ * worker stops when the barrier is terminated.
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-03
+ * @since v1.0
+ * @version v1.0
+ */
+@ThreadSafe
+class RenderWorker implements Runnable {
+	/** Parent dispatcher of this rendering unit. */
+	private final WorkerPoolRendererDispatcher parent;
+	/** Barrier shared with the parent and the other workers. */
+	private final Phaser frameBarrier;
+	/** The start index of {@code RenderWorker} (inclusive). */
+	private final int fromIndex;
+	/** The end index of {@code RenderWorker} (exclusive). */
+	private final int toIndex;
+
+	/**
+	 * Constructor
+	 *
+	 * @param parent       the parent {@link WorkerPoolRendererDispatcher}.
+	 * @param frameBarrier the barrier through which the frames are synchronized.
+	 * @param fromIndex    the from index (inclusive).
+	 * @param toIndex      the to index (exclusive).
+	 */
+	RenderWorker(WorkerPoolRendererDispatcher parent, Phaser frameBarrier, int fromIndex, int toIndex) {
+		this.parent = parent;
+		this.frameBarrier = frameBarrier;
+		this.fromIndex = fromIndex;
+		this.toIndex = toIndex;
+	}
+
+	/**
+	 * Renders a frame every time the barrier is released, until the barrier is
+	 * terminated.
+	 */
+	@Override
+	public void run() {
+		// a negative phase means that the barrier was terminated
+		while (frameBarrier.arriveAndAwaitAdvance() >= 0) {
+			try {
+				parent.renderColumns(fromIndex, toIndex);
+			} catch (RuntimeException e) {
+				// the worker must arrive anyway, otherwise the frame never ends
+				e.printStackTrace();
+			}
+			if (frameBarrier.arriveAndAwaitAdvance() < 0) {
+				return;
+			}
+		}
+	}
+}
@@ -17,6 +17,7 @@
 package org.swisscheese.swisscheese.engine.rendering;
 
 import java.awt.Color;
+import java.util.List;
 
 import org.swisscheese.swisscheese.engine.camera.Camera;
 import org.swisscheese.swisscheese.engine.camera.Mover;
@@ -46,11 +47,13 @@ public abstract class Renderer {
 	/** 'Secret feature' for turning screen 'psychadelic'*/
 	protected static boolean psychadelic = false;
 	/** Boolean for tracking if an image needs to be darkened */
-	protected static GammaState state = GammaState.NORMAL;
+	protected static volatile GammaState state = GammaState.NORMAL;
 	/** The {@link Camera} of the game */
 	protected final Camera camera;
 	/** A {@link View} object that is retrieved from <code>camera</code>. */
 	protected View view;
+	/** Positions of the scan lines on the camera plane. */
+	final RayTable rays;
 
 	/**
 	 * A constructor for the abstract class
@@ -63,7 +66,7 @@ public abstract class Renderer {
 	 * @param map         the map in which the player is.
 	 */
 	protected Renderer(float width, float height, TexturePack texturePack, Camera camera, Map map) {
-		this(new RendererDetails(width, height, new WallTextureList(texturePack).getList(), map.getMap()), camera);
+		this(new RendererDetails(width, height, new WallTextureList(texturePack).getList(), map.getCellSource()), camera);
 	}
 
 	/**
@@ -74,7 +77,9 @@ public abstract class Renderer {
 	 */
 	protected Renderer(RendererDetails details, Camera camera) {
 		Renderer.details = details;
+		shade(details.wallTextures, state);
 		this.camera = camera;
+		rays = RayTable.of((int) details.width);
 	}
 
 	/**
@@ -101,15 +106,43 @@ public abstract class Renderer {
 	}
 
 	/**
-	 * Makes the image either normal, bright, or dim.
+	 * Makes the image either normal, bright, or dim. The wall textures of the
+	 * renderer are shaded for the new state (on the calling thread) before the
+	 * state changes, so no frame waits for them.
 	 * 
 	 * @param state the state to set
 	 */
 	public static void setGammaState(GammaState state) {
+		final RendererDetails current = details;
+		if (current != null) {
+			shade(current.wallTextures, state);
+		}
 		Renderer.state = state;
 		System.out.println("Changing screen gamma to: "+ state.toString());
 	}
 
+	/**
+	 * Shades wall textures for a state of the screen.
+	 * 
+	 * @param textures the wall textures.
+	 * @param state    the {@link GammaState} of the screen.
+	 * @see WallTexture#shade(GammaState)
+	 */
+	private static void shade(List<WallTexture> textures, GammaState state) {
+		for (WallTexture texture : textures) {
+			texture.shade(state);
+		}
+	}
+
+	/**
+	 * Releases the resources (such as threads) held by the renderer. Called when
+	 * the renderer is replaced by a different {@link Renderer}. Does nothing
+	 * by default.
+	 */
+	public void dispose() {
+		return;
+	}
+
 	/**
 	 * Updates and gets {@link Mover}.
 	 * 
@@ -158,6 +191,14 @@ public abstract class Renderer {
 		}
 	}
 	
+	/**
+	 * @return true if the renderer is psychadelic (does not clear the
+	 *         background).
+	 */
+	public static boolean isPsychadelic() {
+		return psychadelic;
+	}
+
 	/**
 	 * Changes the {@link TexturePack} of the {@link RendererDetails} used by {@link Renderer}.
 	 * @param pack the texture pack that is being used.
@@ -78,6 +78,16 @@ public final class RendererFactory {
 				throw new IllegalArgumentException("Invalid RendererDetails");
 			}
 			return new ChunkRendererDispatcher((MultithreadedRendererDetails) details, camera);
+		case WORKER_POOL:
+			if (!(details instanceof MultithreadedRendererDetails)) {
+				throw new IllegalArgumentException("Invalid RendererDetails");
+			}
+			return new WorkerPoolRendererDispatcher((MultithreadedRendererDetails) details, camera);
+		case FORK_JOIN:
+			if (!(details instanceof MultithreadedRendererDetails)) {
+				throw new IllegalArgumentException("Invalid RendererDetails");
+			}
+			return new ForkJoinRendererDispatcher((MultithreadedRendererDetails) details, camera);
 		case SINGLE_THREAD:
 			if (details instanceof MultithreadedRendererDetails) {
 				throw new IllegalArgumentException("Invalid RendererDetails");
@@ -121,4 +131,26 @@ public final class RendererFactory {
 		return new ChunkRendererDispatcher(width, height, texturePack, camera, map, nChunks);
 	}
 
+	/**
+	 * A public static factory method for {@link WorkerPoolRendererDispatcher}.
+	 * 
+	 * @return a new instance of WorkerPoolRendererDispatcher.
+	 * @see WorkerPoolRendererDispatcher
+	 */
+	public static Renderer createWorkerPoolRenderer(float width, float height, TexturePack texturePack,
+			Camera camera, Map map, int nThreads) {
+		return new WorkerPoolRendererDispatcher(width, height, texturePack, camera, map, nThreads);
+	}
+
+	/**
+	 * A public static factory method for {@link ForkJoinRendererDispatcher}.
+	 * 
+	 * @return a new instance of ForkJoinRendererDispatcher.
+	 * @see ForkJoinRendererDispatcher
+	 */
+	public static Renderer createForkJoinRenderer(float width, float height, TexturePack texturePack,
+			Camera camera, Map map, int nThreads) {
+		return new ForkJoinRendererDispatcher(width, height, texturePack, camera, map, nThreads);
+	}
+
 }
@@ -22,7 +22,7 @@ package org.swisscheese.swisscheese.engine.rendering;
  * @author Alex Kalinins
  */
 public enum RendererType {
-	STRIP, CHUNK, SINGLE_THREAD,;
+	STRIP, CHUNK, SINGLE_THREAD, WORKER_POOL, FORK_JOIN,;
 
 	/**
 	 * Returns a {@link RendererType} from <code>renderer</code>.
@@ -37,6 +37,10 @@ public enum RendererType {
 			return CHUNK;
 		else if (renderer instanceof StripRendererDispatcher)
 			return STRIP;
+		else if (renderer instanceof WorkerPoolRendererDispatcher)
+			return WORKER_POOL;
+		else if (renderer instanceof ForkJoinRendererDispatcher)
+			return FORK_JOIN;
 		else
 			throw new IllegalArgumentException();
 	}
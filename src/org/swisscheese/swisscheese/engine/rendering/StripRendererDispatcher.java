@@ -80,7 +80,7 @@ public class StripRendererDispatcher extends MultithreadedRendererDispatcher {
 			}
 		}
 		
-		view = camera.getView();
+		view = camera.getRenderView();
 
 		// loading all strips into a Future Deque.
 		for (int counter = 0; counter < details.width; counter++) {
@@ -106,7 +106,12 @@ public class StripRendererDispatcher extends MultithreadedRendererDispatcher {
 		return this.pixels;
 	}
 
-	void insertValue(int value, int index) {
-		pixels[index] = value;
+	/**
+	 * Getter for the pixels array that is currently being rendered.
+	 * 
+	 * @return <code>pixels</code>.
+	 */
+	int[] getPixels() {
+		return pixels;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.engine.rendering;
+
+import java.util.concurrent.Phaser;
+
+import org.swisscheese.swisscheese.annotations.ThreadSafe;
+import org.swisscheese.swisscheese.engine.camera.Camera;
+import org.swisscheese.swisscheese.engine.details.MultithreadedRendererDetails;
+import org.swisscheese.swisscheese.engine.details.RendererDetails;
+import org.swisscheese.swisscheese.engine.imageEffects.GammaState;
+import org.swisscheese.swisscheese.map.CellSource;
+import org.swisscheese.swisscheese.map.Map;
+import org.swisscheese.swisscheese.texturePacks.TexturePack;
+
+/**
+ * A Worker Pool Renderer dispatcher. This rendering strategy starts one
+ * long-lived {@link RenderWorker} per thread when the dispatcher is created.
+ * Each worker owns a fixed range of columns of the screen for as long as the
+ * renderer is used.
+ * <p>
+ * The {@link ChunkRendererDispatcher} and {@link StripRendererDispatcher}
+ * submit new tasks to the thread-pool every frame, and collect a
+ * {@code Future} for each of them. At high resolutions (and especially with
+ * strips) that task, queue and {@code Future} churn takes more time than the
+ * rendering itself. The workers of this dispatcher are instead released and
+ * collected through a single reusable {@link Phaser}, so nothing is submitted
+ * or created once the renderer is running.
+ * <p>
+ * Unlike the chunk renderer, the width of the screen does not need to be
+ * divisible by the number of threads.
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-03
+ * @since v1.0
+ * @version v1.0
+ */
+@ThreadSafe
+public class WorkerPoolRendererDispatcher extends MultithreadedRendererDispatcher {
+	/**
+	 * Barrier shared by the workers and the rendering thread. Every frame goes
+	 * through two phases: the workers are released, and then collected.
+	 */
+	private final Phaser frameBarrier;
+
+	// frame state, published to the workers by frameBarrier
+	private int[] pixels;
+	private RendererDetails frameDetails;
+	private GammaState frameState;
+	private float xPos;
+	private float yPos;
+	private float xDir;
+	private float yDir;
+	private float xPlane;
+	private float yPlane;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	WorkerPoolRendererDispatcher(float width, float height, TexturePack texturePack, Camera camera, Map map,
+			int nThreads) throws IllegalStateException {
+		super(width, height, texturePack, camera, map, nThreads, nThreads);
+		frameBarrier = new Phaser(nThreads + 1);
+		startWorkers((int) width, nThreads);
+	}
+
+	/**
+	 * A constructor from existing {@link MultithreadedRendererDetails}.
+	 *
+	 * @param details the details from which it is created
+	 * @param camera  camera used
+	 */
+	WorkerPoolRendererDispatcher(MultithreadedRendererDetails details, Camera camera) {
+		super(details, camera, details.nThreads);
+		frameBarrier = new Phaser(details.nThreads + 1);
+		startWorkers((int) details.width, details.nThreads);
+	}
+
+	/**
+	 * Splits the screen into <code>nThreads</code> column ranges and submits one
+	 * {@link RenderWorker} for each range to the thread-pool.
+	 *
+	 * @param width    width of the screen.
+	 * @param nThreads number of workers.
+	 */
+	private void startWorkers(int width, int nThreads) {
+		for (int i = 0; i < nThreads; i++) {
+			pool.execute(new RenderWorker(this, frameBarrier, i * width / nThreads, (i + 1) * width / nThreads));
+		}
+	}
+
+	@Override
+	public int[] render(int[] pixels) {
+		this.pixels = prepareBackground(pixels);
+
+		view = camera.getRenderView();
+		frameDetails = getDetails();
+		frameState = getGammaState();
+		xPos = view.getxPos();
+		yPos = view.getyPos();
+		xDir = view.getxDir();
+		yDir = view.getyDir();
+		xPlane = view.getxPlane();
+		yPlane = view.getyPlane();
+
+		// releasing the workers, and then waiting for all of them to finish.
+		frameBarrier.arriveAndAwaitAdvance();
+		frameBarrier.arriveAndAwaitAdvance();
+
+		return this.pixels;
+	}
+
+	/**
+	 * Renders the columns from <code>fromIndex</code> (inclusive) to
+	 * <code>toIndex</code> (exclusive) of the current frame. Called by the
+	 * {@link RenderWorker} that owns the columns.
+	 *
+	 * @param fromIndex the from index (inclusive).
+	 * @param toIndex   the to index (exclusive).
+	 */
+	void renderColumns(int fromIndex, int toIndex) {
+		final CellSource cells = frameDetails.maze.cursor();
+		for (int x = fromIndex; x < toIndex; x++) {
+			RayCaster.castColumn(x, xPos, yPos, xDir, yDir, xPlane, yPlane, frameDetails, cells, rays, frameState,
+					pixels);
+		}
+	}
+
+	/**
+	 * Terminates the frame barrier (which stops the workers) before shutting
+	 * down the thread-pool.
+	 */
+	@Override
+	public void dispose() {
+		frameBarrier.forceTermination();
+		super.dispose();
+	}
+}
@@ -0,0 +1,279 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.engine.texture;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.swisscheese.swisscheese.annotations.ThreadSafe;
+import org.swisscheese.swisscheese.engine.imageEffects.ChangeGamma;
+import org.swisscheese.swisscheese.engine.imageEffects.GammaState;
+import org.swisscheese.swisscheese.engine.io.images.PixelImage;
+
+/**
+ * Looks up the texels of a square texture whose size is a power of two, so a
+ * texel is addressed with a shift and a mask instead of a multiplication.
+ * <p>
+ * The texels are stored column by column (transposed from the rows of the
+ * image): <code>texels[y + (x &lt;&lt; shift)]</code>. Walls are drawn one
+ * vertical strip at a time, so the texels of a strip are next to each other in
+ * memory, instead of a whole row apart.
+ * <p>
+ * Textures from {@value #MIN_SIZE} to {@value #MAX_SIZE} pixels are copied as
+ * they are. Any other image (not square, not a power of two, or out of that
+ * range) is resampled once (nearest texel) to the next power of two, clamped
+ * to that range, so any texture pack can be drawn by the same code.
+ * <p>
+ * A sampler can also be halved ({@link #half()}), to build the smaller levels
+ * of a mip chain (down to 1x1 texel).
+ * <p>
+ * The texels are also kept shaded ({@link #getTexels(GammaState, boolean)}):
+ * once for the walls that face the camera, and once darkened by
+ * {@value #SIDE_SHADE} for the side walls. The texels are shaded for the
+ * normal screen when the sampler is created, and for a dark or bright screen
+ * when the state of the screen changes ({@link #shade(GammaState)}), on the
+ * thread that changes it. The texels of each state are shaded at most once
+ * and kept, so a frame never finds them replaced by another state. The walls
+ * are drawn without changing the gamma of any pixel, and the renderers only
+ * read the shaded texels.
+ * 
+ * @author Alex Kalinins
+ * @since 2019-02-17
+ * @since v1.0
+ * @version v1.0
+ */
+@ThreadSafe
+public final class TextureSampler {
+	/** The smallest size of a texture (in pixels) */
+	public static final int MIN_SIZE = 32;
+	/** The largest size of a texture (in pixels) */
+	public static final int MAX_SIZE = 1024;
+	/** The gamma coefficient of the side walls (3D effect), 0.6 works the best */
+	public static final float SIDE_SHADE = 0.6f;
+
+	private final int[] texels;
+	private final int size;
+	private final int shift;
+	private final int mask;
+	/** The texels shaded for each {@link GammaState} (by ordinal, null if not yet) */
+	private final AtomicReferenceArray<Shading> shadings = new AtomicReferenceArray<>(GammaState.values().length);
+
+	/**
+	 * Constructor for {@code TextureSampler}.
+	 * 
+	 * @param image the image of the texture.
+	 */
+	public TextureSampler(PixelImage image) {
+		size = samplerSize(image.getWidth(), image.getHeight());
+		shift = Integer.numberOfTrailingZeros(size);
+		mask = size - 1;
+		texels = transpose(image, size);
+		shadings.set(GammaState.NORMAL.ordinal(), new Shading(texels, GammaState.NORMAL));
+	}
+
+	/**
+	 * Private constructor for a level of a mip chain.
+	 * 
+	 * @param texels the texels of the level.
+	 * @param size   the width and height of the level (a power of two).
+	 */
+	private TextureSampler(int[] texels, int size) {
+		this.texels = texels;
+		this.size = size;
+		shift = Integer.numberOfTrailingZeros(size);
+		mask = size - 1;
+		shadings.set(GammaState.NORMAL.ordinal(), new Shading(texels, GammaState.NORMAL));
+	}
+
+	/**
+	 * Returns the texture at half the size. Every texel is the average of a block
+	 * of 2x2 texels (box filter), for each channel (including alpha).
+	 * 
+	 * @return the halved texture.
+	 * @throws IllegalStateException if the texture is already 1x1 texel.
+	 */
+	public TextureSampler half() throws IllegalStateException {
+		if (size == 1) {
+			throw new IllegalStateException("A texture of 1x1 texel cannot be halved");
+		}
+		final int half = size >> 1;
+		final int[] result = new int[half * half];
+		int i;
+		for (int x = 0; x < half; x++) {
+			for (int y = 0; y < half; y++) {
+				i = (y << 1) + ((x << 1) << shift);
+				result[y + x * half] = average(texels[i], texels[i + 1], texels[i + size], texels[i + size + 1]);
+			}
+		}
+		return new TextureSampler(result, half);
+	}
+
+	/**
+	 * Averages four ARGB colors, channel by channel (rounded).
+	 */
+	private static int average(int a, int b, int c, int d) {
+		int result = 0;
+		for (int channel = 0; channel < 32; channel += 8) {
+			final int sum = ((a >>> channel) & 0xFF) + ((b >>> channel) & 0xFF) + ((c >>> channel) & 0xFF)
+					+ ((d >>> channel) & 0xFF);
+			result |= ((sum + 2) >> 2) << channel;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the size of the sampled texture for an image: the smallest power of
+	 * two that is at least as large as the image, from {@value #MIN_SIZE} to
+	 * {@value #MAX_SIZE}.
+	 * 
+	 * @param width  the width of the image.
+	 * @param height the height of the image.
+	 * @return the width and height of the sampled texture.
+	 */
+	public static int samplerSize(int width, int height) {
+		final int largest = Math.max(width, height);
+		if (largest <= MIN_SIZE) {
+			return MIN_SIZE;
+		}
+		if (largest >= MAX_SIZE) {
+			return MAX_SIZE;
+		}
+		return Integer.highestOneBit(largest - 1) << 1;
+	}
+
+	/**
+	 * Copies an image column by column, scaled to a square of <code>size</code>
+	 * pixels (nearest texel) if it is not that size already.
+	 * 
+	 * @param image the image (row by row).
+	 * @param size  the width and height of the result.
+	 * @return the texels of the image, column by column.
+	 */
+	private static int[] transpose(PixelImage image, int size) {
+		final int width = image.getWidth();
+		final int height = image.getHeight();
+		final int[] pixels = image.getPixels();
+		final int[] result = new int[size * size];
+		int column;
+		for (int x = 0; x < size; x++) {
+			column = (int) ((long) x * width / size);
+			for (int y = 0; y < size; y++) {
+				result[y + x * size] = pixels[column + (int) ((long) y * height / size) * width];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the texels, column by column (the texel (x, y) is at
+	 *         <code>y + (x &lt;&lt; getShift())</code>). Must not be changed.
+	 */
+	public int[] getTexels() {
+		return texels;
+	}
+
+	/**
+	 * @return the width and height of the texture (a power of two).
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return log2 of the size of the texture.
+	 */
+	public int getShift() {
+		return shift;
+	}
+
+	/**
+	 * @return the size of the texture minus one (wraps a coordinate into the
+	 *         texture).
+	 */
+	public int getMask() {
+		return mask;
+	}
+
+	/**
+	 * Shades the texels for a state of the screen, unless they are already
+	 * shaded for it. Called when the state changes, before any wall is drawn in
+	 * that state. The shaded texels are kept for every state, and never
+	 * replaced.
+	 * 
+	 * @param state the {@link GammaState} of the screen.
+	 */
+	public void shade(GammaState state) {
+		final int i = state.ordinal();
+		if (shadings.get(i) == null) {
+			shadings.compareAndSet(i, null, new Shading(texels, state));
+		}
+	}
+
+	/**
+	 * Returns the texels shaded for a state of the screen. Only reads the texels
+	 * that were already shaded (see {@link #shade(GammaState)}); if they were
+	 * not shaded for <code>state</code>, the texels of a normal screen are
+	 * returned instead.
+	 * 
+	 * @param state the {@link GammaState} of the screen.
+	 * @param side  true for a side wall (darkened by {@value #SIDE_SHADE}).
+	 * @return the shaded texels, column by column (like {@link #getTexels()}).
+	 *         Must not be changed.
+	 */
+	public int[] getTexels(GammaState state, boolean side) {
+		Shading current = shadings.get(state.ordinal());
+		if (current == null) {
+			current = shadings.get(GammaState.NORMAL.ordinal());
+		}
+		return (side) ? current.side : current.front;
+	}
+
+	/**
+	 * Returns a texel. The coordinates wrap around the texture.
+	 * 
+	 * @param x the x coordinate of the texel.
+	 * @param y the y coordinate of the texel.
+	 * @return the RGB value of the texel.
+	 */
+	public int getTexel(int x, int y) {
+		return texels[(y & mask) + ((x & mask) << shift)];
+	}
+
+	/**
+	 * The texels of a sampler shaded for one {@link GammaState}. The colors are
+	 * the same as darkening the side walls first, and then changing the gamma
+	 * of the screen.
+	 */
+	private static final class Shading {
+		/** The texels of the walls that face the camera */
+		private final int[] front;
+		/** The texels of the side walls */
+		private final int[] side;
+
+		Shading(int[] texels, GammaState state) {
+			final float coefficient = state.getCoefficient();
+			front = (state == GammaState.NORMAL) ? texels : new int[texels.length];
+			side = new int[texels.length];
+			for (int i = 0; i < texels.length; i++) {
+				side[i] = ChangeGamma.getColor(texels[i], SIDE_SHADE);
+				if (state != GammaState.NORMAL) {
+					front[i] = ChangeGamma.getColor(texels[i], coefficient);
+					side[i] = ChangeGamma.getColor(side[i], coefficient);
+				}
+			}
+		}
+	}
+}
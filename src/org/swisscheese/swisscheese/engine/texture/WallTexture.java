@@ -19,10 +19,21 @@ package org.swisscheese.swisscheese.engine.texture;
 import java.io.File;
 
 import org.swisscheese.swisscheese.annotations.Immutable;
+import org.swisscheese.swisscheese.engine.imageEffects.GammaState;
 import org.swisscheese.swisscheese.engine.io.images.PixelImage;
 
 /**
  * A WallTexture object for storing a wall texture
+ * <p>
+ * A mip chain of the texture is built when it is loaded: every level is half
+ * the size of the one before (box filtered), down to 1x1 texel. Far walls are
+ * drawn from a small level ({@link #getSampler(int)}), which is read with
+ * fewer cache misses and does not shimmer.
+ * <p>
+ * Every level is also shaded for a normal screen when the texture is loaded,
+ * and for a dark or bright screen by {@link #shade(GammaState)} (see
+ * {@link TextureSampler#getTexels(GammaState, boolean)}), so the renderers
+ * never shade the textures themselves.
  * 
  * @author Alex Kalinins
  * @since 2018-12-10
@@ -34,11 +45,20 @@ public class WallTexture{
 	private final int size;
 	protected final PixelImage image;
 	protected final File file;
+	/** The mip chain: level 0 is the full texture, the last level is 1x1 */
+	private final TextureSampler[] mipmaps;
 	
 	public WallTexture(File file) {
 		this.file = file;
 		image = new PixelImage(file);
 		size = image.getWidth();
+
+		final TextureSampler sampler = new TextureSampler(image);
+		mipmaps = new TextureSampler[sampler.getShift() + 1];
+		mipmaps[0] = sampler;
+		for (int level = 1; level < mipmaps.length; level++) {
+			mipmaps[level] = mipmaps[level - 1].half();
+		}
 	}
 	
 	public WallTexture(String fileLocation) {
@@ -53,6 +73,39 @@ public class WallTexture{
 		return image;
 	}
 
+	/**
+	 * @return the {@link TextureSampler} of the full texture.
+	 */
+	public final TextureSampler getSampler() {
+		return mipmaps[0];
+	}
+
+	/**
+	 * Returns the smallest level of the mip chain that still has at least one
+	 * texel for every pixel of a wall.
+	 * 
+	 * @param wallLength the height of the wall on the screen (in pixels).
+	 * @return the {@link TextureSampler} through which the wall is drawn.
+	 */
+	public final TextureSampler getSampler(int wallLength) {
+		// the largest level whose size (size >> level) is at least wallLength
+		final int level = mipmaps[0].getShift() - (Integer.SIZE - Integer.numberOfLeadingZeros(wallLength - 1));
+		return mipmaps[(level <= 0) ? 0 : level];
+	}
+
+	/**
+	 * Shades every level of the mip chain for a state of the screen, unless it
+	 * is already shaded for it.
+	 * 
+	 * @param state the {@link GammaState} of the screen.
+	 * @see TextureSampler#shade(GammaState)
+	 */
+	public final void shade(GammaState state) {
+		for (TextureSampler level : mipmaps) {
+			level.shade(state);
+		}
+	}
+
 	public void doAction() {
 		return;
 	}
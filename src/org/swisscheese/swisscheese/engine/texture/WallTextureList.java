@@ -19,6 +19,7 @@ package org.swisscheese.swisscheese.engine.texture;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.swisscheese.swisscheese.annotations.Immutable;
 import org.swisscheese.swisscheese.texturePacks.TexturePack;
@@ -26,6 +27,10 @@ import org.swisscheese.swisscheese.texturePacks.TexturePack;
 /**
  * This class loads images from a list of {@code File} objects into a list of
  * {@code WallTexture} objects.
+ * <p>
+ * The images can be decoded one after the other ({@link #getList()}), or all at
+ * once on the threads of the common pool ({@link #loadAsync()}), so they can
+ * be loaded while the maze is generated.
  * 
  * @author Alex Kalinins
  * @since 2018-12-15
@@ -60,4 +65,28 @@ public class WallTextureList {
 
 		return list;
 	}
+
+	/**
+	 * Loads the textures on other threads. Every image is decoded by its own task.
+	 * 
+	 * @return the future list of {@link WallTexture} objects (in the same order as
+	 *         {@link #getList()}).
+	 */
+	public CompletableFuture<List<WallTexture>> loadAsync() {
+		final List<CompletableFuture<WallTexture>> futures = new ArrayList<>();
+		futures.add(CompletableFuture.supplyAsync(() -> new WallTexture(fileList.get(0)))); // entry
+		futures.add(CompletableFuture.supplyAsync(() -> new EndWallTexture(fileList.get(1)))); // exit
+		for (int i = 2; i < 5; i++) {
+			final File file = fileList.get(i);
+			futures.add(CompletableFuture.supplyAsync(() -> new WallTexture(file))); // walls
+		}
+
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+			List<WallTexture> list = new ArrayList<>();
+			for (CompletableFuture<WallTexture> future : futures) {
+				list.add(future.join());
+			}
+			return list;
+		});
+	}
 }
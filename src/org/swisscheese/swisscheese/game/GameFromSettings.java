@@ -16,11 +16,18 @@
  */
 package org.swisscheese.swisscheese.game;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import org.swisscheese.swisscheese.engine.camera.View;
+import org.swisscheese.swisscheese.engine.texture.WallTexture;
+import org.swisscheese.swisscheese.engine.texture.WallTextureList;
 import org.swisscheese.swisscheese.gameSaving.GameSave;
 import org.swisscheese.swisscheese.gameSaving.SaveMetadata;
 import org.swisscheese.swisscheese.map.DifficultyLevel;
 import org.swisscheese.swisscheese.map.Map;
+import org.swisscheese.swisscheese.map.maze.GenerationMonitor;
+import org.swisscheese.swisscheese.map.maze.ProgressListener;
 import org.swisscheese.swisscheese.settings.GameSettings;
 
 /**
@@ -35,6 +42,11 @@ import org.swisscheese.swisscheese.settings.GameSettings;
  *
  */
 public class GameFromSettings {
+	/**
+	 * The frame-rate limit. Not limited if the game is started with
+	 * {@code -Dswisscheese.uncapped=true} (for benchmarking).
+	 */
+	private static final float FRAME_RATE = Boolean.getBoolean("swisscheese.uncapped") ? 0f : 60f;
 	@SuppressWarnings("unused")
 	private final GameLoop loop;
 	private static Map map;
@@ -50,8 +62,26 @@ public class GameFromSettings {
 	 */
 	private GameFromSettings(GameSettings settings, SaveMetadata metadata, Map map, View... view) {
 		GameFromSettings.map = map;
-		loop = new GameLoop(settings.getWindowSize().getSize(),settings.isFitToScreen(), settings.getTexturePack(), 60f, settings.getFOV(), map,
-				metadata, settings.getUseRenderer(), view);
+		loop = new GameLoop(settings.getWindowSize().getSize(),settings.isFitToScreen(), settings.getTexturePack(), FRAME_RATE, settings.getFOV(), map,
+				metadata, settings.getUseRenderer(), settings.isPipelined(), view);
+	}
+
+	/**
+	 * Private constructor for a game whose textures were decoded while the maze
+	 * was generated.
+	 * 
+	 * @param settings   settings of the game instance.
+	 * @param metadata   metadata object of the game.
+	 * @param map        the maze map of the game.
+	 * @param textures   the decoded textures of the walls.
+	 * @param startNanos when the game started loading (as
+	 *                   {@code System.nanoTime()}).
+	 */
+	private GameFromSettings(GameSettings settings, SaveMetadata metadata, Map map, List<WallTexture> textures,
+			long startNanos) {
+		GameFromSettings.map = map;
+		loop = new GameLoop(settings.getWindowSize().getSize(), settings.isFitToScreen(), textures, FRAME_RATE,
+				settings.getFOV(), map, metadata, settings.getUseRenderer(), settings.isPipelined(), startNanos);
 	}
 
 	/**
@@ -72,11 +102,36 @@ public class GameFromSettings {
 	 * @param name     name of the new game
 	 */
 	public static GameFromSettings newGame(GameSettings settings, DifficultyLevel level, String name) {
-		Map map = new Map(level.getSize());
+		Map map = new Map(level.getSize(), level.getAlgorithm());
 		SaveMetadata metadata = SaveMetadata.makeMetadata(name);
 		return new GameFromSettings(settings, metadata, map);
 	}
 
+	/**
+	 * Public static factory for a new Game, whose maze is generated on another
+	 * thread. The textures are decoded at the same time (see
+	 * {@link WallTextureList#loadAsync()}), and the game is started when both the
+	 * maze and the textures are ready.
+	 * 
+	 * @param settings settings of the game instance.
+	 * @param level    difficulty of the game
+	 * @param name     name of the new game
+	 * @param listener the listener of the progress of the maze (can be
+	 *                 <code>null</code>).
+	 * @return the future game. It completes exceptionally (with a
+	 *         {@link java.util.concurrent.CancellationException}) if the maze
+	 *         takes longer than the time budget of the level.
+	 */
+	public static CompletableFuture<GameFromSettings> newGameAsync(GameSettings settings, DifficultyLevel level,
+			String name, ProgressListener listener) {
+		final long start = System.nanoTime();
+		final GenerationMonitor monitor = new GenerationMonitor(listener, level.getTimeBudget());
+		final CompletableFuture<List<WallTexture>> textures = new WallTextureList(settings.getTexturePack())
+				.loadAsync();
+		return Map.generateAsync(level.getSize(), level.getAlgorithm(), monitor).thenCombine(textures,
+				(map, list) -> new GameFromSettings(settings, SaveMetadata.makeMetadata(name), map, list, start));
+	}
+
 	public static final Map getMap() {
 		return map;
 	}
@@ -17,12 +17,17 @@
 package org.swisscheese.swisscheese.game;
 
 import java.awt.Dimension;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 import org.swisscheese.swisscheese.annotations.NotThreadSafe;
 import org.swisscheese.swisscheese.engine.camera.View;
 import org.swisscheese.swisscheese.engine.details.UseRenderer;
 import org.swisscheese.swisscheese.engine.display.Window;
+import org.swisscheese.swisscheese.engine.texture.WallTexture;
+import org.swisscheese.swisscheese.engine.texture.WallTextureList;
 import org.swisscheese.swisscheese.gameSaving.SaveMetadata;
 import org.swisscheese.swisscheese.map.Map;
 import org.swisscheese.swisscheese.texturePacks.TexturePack;
@@ -33,8 +38,12 @@ import org.swisscheese.swisscheese.texturePacks.TexturePack;
  * settings or starting the game.
  * <p>
  * This class calls other components of the game such as the {@link Window} to
- * update, while limiting the FPS to avoid the physics from varying between
- * computers and for efficient use of computer resources.
+ * update, while limiting the FPS for efficient use of computer resources.
+ * <p>
+ * The simulation (movement of the player) runs in fixed ticks of
+ * {@value #TICK_RATE} per second, independently of the frame rate, so the
+ * physics do not vary between computers. Each frame is rendered from a view
+ * interpolated between the last two ticks.
  * 
  * @author Alex Kalinins
  * @since 2018-12-10
@@ -45,8 +54,18 @@ import org.swisscheese.swisscheese.texturePacks.TexturePack;
 public final class GameLoop implements Runnable {
 	private static Thread thread;
 	private static final AtomicBoolean running = new AtomicBoolean();
+	/** Number of simulation ticks in a second */
+	public static final int TICK_RATE = 120;
+	private static final long TICK_NANOS = 1_000_000_000L / TICK_RATE; // length of a tick
+	private static final float TICK_SECONDS = 1f / TICK_RATE;
+	/** Longest time simulated in one frame, so a long stall is not caught up */
+	private static final long MAX_FRAME_NANOS = 250_000_000L;
+	/** The end of a frame is waited for by spinning, not parking */
+	private static final long SPIN_NANOS = 1_000_000L;
 	private final float FRAME_RATE; // how many frames in a second
-	private static float FRAME_DURATION; // length of a frame (in seconds)
+	private final long FRAME_NANOS; // length of a frame (0 if uncapped)
+	private final boolean pipelined; // frames are displayed by a separate thread
+	private final long startNanos; // when the game started loading (for the time to first frame)
 
 	/**
 	 * Constructor of {@code GameLoop}
@@ -59,21 +78,56 @@ public final class GameLoop implements Runnable {
 	 * @param texture     the object that contains all textures that the game will
 	 *                    be using.
 	 * @param FRAME_RATE  the frame-rate to which the frame-rate of the game will be
-	 *                    limited. Measured as frames per second.
+	 *                    limited. Measured as frames per second. If it is 0 or
+	 *                    less, the frame-rate is not limited (for benchmarking).
 	 * @param FOV         the field of view of the player.
 	 * @param map         the map in which the player is placed.
 	 * @param metadata    the metadata required for saving the game.
+	 * @param useRenderer the renderer and the number of threads that will be used.
+	 * @param pipelined   true if frames are displayed by a separate thread while
+	 *                    the next frame is rendered.
 	 * @param view        Optional variable used only when a saved game is being
 	 *                    opened.
 	 */
 	public GameLoop(Dimension dimension, boolean fitToScreen, TexturePack texture, final float FRAME_RATE, float FOV,
-			Map map, SaveMetadata metadata, UseRenderer useRenderer, View... view) {
+			Map map, SaveMetadata metadata, UseRenderer useRenderer, boolean pipelined, View... view) {
+		this(dimension, fitToScreen, new WallTextureList(texture).getList(), FRAME_RATE, FOV, map, metadata,
+				useRenderer, pipelined, System.nanoTime(), view);
+	}
+
+	/**
+	 * Constructor of {@code GameLoop} with textures that were already decoded.
+	 * 
+	 * @param dimension   the dimension of the {@link Window} in which the game will
+	 *                    display.
+	 * @param fitToScreen true if the {@code Window} size will be the same as that
+	 *                    of the user's monitor.
+	 * @param textures    the decoded textures of the walls.
+	 * @param FRAME_RATE  the frame-rate to which the frame-rate of the game will be
+	 *                    limited (not limited if it is 0 or less).
+	 * @param FOV         the field of view of the player.
+	 * @param map         the map in which the player is placed.
+	 * @param metadata    the metadata required for saving the game.
+	 * @param useRenderer the renderer and the number of threads that will be used.
+	 * @param pipelined   true if frames are displayed by a separate thread while
+	 *                    the next frame is rendered.
+	 * @param startNanos  when the game started loading (as
+	 *                    {@code System.nanoTime()}). The time from then to the
+	 *                    first frame is printed.
+	 * @param view        Optional variable used only when a saved game is being
+	 *                    opened.
+	 */
+	public GameLoop(Dimension dimension, boolean fitToScreen, List<WallTexture> textures, final float FRAME_RATE,
+			float FOV, Map map, SaveMetadata metadata, UseRenderer useRenderer, boolean pipelined, long startNanos,
+			View... view) {
 		// calculate how long each frame is.
 		this.FRAME_RATE = FRAME_RATE;
-		FRAME_DURATION = 1f / FRAME_RATE;
+		FRAME_NANOS = (FRAME_RATE > 0) ? (long) (1_000_000_000L / FRAME_RATE) : 0;
+		this.pipelined = pipelined;
+		this.startNanos = startNanos;
 
 		Window.makeWindow((int) dimension.getWidth(), (int) dimension.getHeight(), fitToScreen, map, FOV, metadata,
-				texture, useRenderer, view);
+				textures, useRenderer, view);
 		thread = new Thread(this);
 		start();
 	}
@@ -98,38 +152,80 @@ public final class GameLoop implements Runnable {
 		}
 	}
 
-	private float getTime() {
-		return (float) System.nanoTime() / 1000000000F;
-	}
-
 	/**
 	 * Run method of class. Main loop in here
+	 * <p>
+	 * If the loop is pipelined, the {@link Window} displays the frames on a
+	 * separate thread, and this loop only renders them. The frame rate is then
+	 * limited by the slower of the two stages, not by their sum.
 	 */
 	@Override
 	public void run() {
-		float time;
-		float passedTime;
+		long now = System.nanoTime();
+		long previous = now;
+		long nextFrame = now;
+		long accumulator = 0; // time not simulated yet
+		boolean firstFrame = true;
+
+		if (pipelined) {
+			Window.getWindow().startPresenting();
+		}
 
 		do {
 			try {
-				time = getTime();
-				Window.getWindow().render();
-				Window.getWindow().switchBuffer();
-
-				passedTime = getTime() - time; // how much time passed
-
-				if (passedTime < FRAME_DURATION) {
-					// computer went ahead
-					try {
-						Thread.sleep((long) ((FRAME_DURATION - passedTime) * 1000));
-					} catch (InterruptedException e) {
-						e.printStackTrace();
+				now = System.nanoTime();
+				accumulator += Math.min(now - previous, MAX_FRAME_NANOS);
+				previous = now;
+
+				while (accumulator >= TICK_NANOS) {
+					Window.getWindow().tick(TICK_SECONDS);
+					accumulator -= TICK_NANOS;
+				}
+
+				Window.getWindow().render((float) accumulator / TICK_NANOS);
+				if (!pipelined) {
+					Window.getWindow().switchBuffer();
+				}
+				if (firstFrame) {
+					firstFrame = false;
+					System.out.printf("Time to first frame: %d ms%n",
+							TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+				}
+
+				if (FRAME_NANOS > 0) {
+					nextFrame += FRAME_NANOS;
+					if (nextFrame < System.nanoTime()) {
+						// computer fell behind, not catching up
+						nextFrame = System.nanoTime();
+					} else {
+						waitUntil(nextFrame);
 					}
 				}
 			} catch (NullPointerException e) {
 				e.printStackTrace();
 			}
 		} while (running.get());
+
+		if (pipelined) {
+			Window.getWindow().stopPresenting();
+		}
+	}
+
+	/**
+	 * Waits until {@code System.nanoTime()} reaches <code>deadline</code>. Parking
+	 * can overshoot, so the thread parks until shortly before the deadline and
+	 * spins for the rest.
+	 * 
+	 * @param deadline the time (as {@code System.nanoTime()}) to wait for.
+	 */
+	private static void waitUntil(long deadline) {
+		long remaining;
+		while ((remaining = deadline - System.nanoTime()) > SPIN_NANOS) {
+			LockSupport.parkNanos(remaining - SPIN_NANOS);
+		}
+		while (System.nanoTime() < deadline) {
+			Thread.yield();
+		}
 	}
 
 	public void pauseGame() {
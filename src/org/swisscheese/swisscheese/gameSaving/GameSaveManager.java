@@ -17,9 +17,10 @@
 package org.swisscheese.swisscheese.gameSaving;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.List;
@@ -146,15 +147,10 @@ public final class GameSaveManager {
 	 * @return a {@code GameSaveList} from {@code FILE}.
 	 */
 	private GameSaveList readFromFile() {
-		String s;
-		StringBuilder builder = new StringBuilder();
-
+		// parsed straight from the file, so the JSON of large maps is never held
+		// in memory as a whole
 		try (BufferedReader reader = new BufferedReader(new FileReader(FILE))) {
-			while ((s = reader.readLine()) != null) {
-				builder.append(s);
-			}
-			s = builder.toString();
-			return gson.fromJson(s, GameSaveList.class);
+			return gson.fromJson(reader, GameSaveList.class);
 
 		} catch (IOException e) {
 			e.printStackTrace();
@@ -196,10 +192,10 @@ public final class GameSaveManager {
 				e.printStackTrace();
 			}
 		}
-		String jsonCode = gson.toJson(list);
-		try (PrintWriter writer = new PrintWriter(FILE)) {
-			writer.print(jsonCode);
-		} catch (FileNotFoundException e) {
+		// written straight to the file, without building the JSON in a String
+		try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(FILE)))) {
+			gson.toJson(list, writer);
+		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.map;
+
+/**
+ * A source of the cells of a map, through which the renderers and the
+ * {@link org.swisscheese.swisscheese.engine.camera.Mover} look up the walls.
+ * The value of a cell is the same as in the map array of a {@link Map}: 0 for
+ * an empty cell, 1 for the entry, 2 for the exit, and 3 or more for a wall.
+ * <p>
+ * Any location can be looked up. Locations outside of the map are walls, so a
+ * ray always hits a wall. A {@code CellSource} is looked up by many rendering
+ * threads at once, so implementations must be thread safe. A caller that
+ * looks up many cells on one thread can ask for a {@link #cursor()}, which may
+ * remember where it looked last without sharing that with other threads.
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-12
+ * @since v1.0
+ * @version v1.0
+ * @see Map#getCellSource()
+ * @see ChunkedMaze
+ */
+@FunctionalInterface
+public interface CellSource {
+	/** The value of cells outside of the map */
+	int OUTSIDE = 3;
+
+	/**
+	 * Gets the value of a cell of the map.
+	 *
+	 * @param x x-location of the cell (first index of the map array).
+	 * @param y y-location of the cell (second index of the map array).
+	 * @return the value of the cell (0 if the cell is empty).
+	 */
+	int getCell(int x, int y);
+
+	/**
+	 * Returns a source of the same cells for a single caller (on one thread at a
+	 * time), such as a rendering thread or the ray of a single column. The cursor
+	 * may remember the last lookups, so nearby cells are found faster.
+	 *
+	 * @return a cursor over the cells (this source itself by default).
+	 */
+	default CellSource cursor() {
+		return this;
+	}
+}
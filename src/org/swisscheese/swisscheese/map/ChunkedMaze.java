@@ -0,0 +1,296 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.map;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.SplittableRandom;
+
+import org.swisscheese.swisscheese.annotations.ThreadSafe;
+import org.swisscheese.swisscheese.map.maze.CellGrid;
+import org.swisscheese.swisscheese.map.maze.EllerGenerator;
+
+/**
+ * An endless maze, made of chunks of {@link #CHUNK_SIZE}x{@link #CHUNK_SIZE}
+ * maze cells. The maze starts at location (0, 0) and has no end in the
+ * positive directions; every location with a negative coordinate is a wall.
+ * <p>
+ * A chunk is only generated when one of its cells is looked up. Every chunk is
+ * a perfect maze (generated by {@link EllerGenerator}) from a seed that only
+ * depends on the world seed and the location of the chunk. The wall between
+ * two chunks belongs to the chunk to the south or to the east, which breaks one
+ * random wall in it. So a chunk never depends on another chunk, and the same
+ * world seed always generates the same maze, no matter in which order the
+ * chunks are generated.
+ * <p>
+ * The generated chunks are kept in a least-recently-used cache. When the cache
+ * is full, the chunk that was not looked up for the longest time is dropped
+ * (and generated again if it is needed later), so the memory used by the maze
+ * never grows above the capacity of the cache.
+ * <p>
+ * Every lookup through {@link #getCell(int, int)} goes through the cache. A
+ * caller that looks up many cells (such as the ray of a column) uses a
+ * {@link #cursor()}, which remembers its last chunk without sharing it with
+ * the other threads.
+ * <p>
+ * Like in the map array of a {@link Map}, every maze cell is a 2x2 block of map
+ * cells, with the corner wall, the north wall, the west wall and the empty
+ * cell. The textures of the walls are picked from the location of the wall.
+ * <p>
+ * No difficulty level plays in a {@code ChunkedMaze} yet: it is the cell source
+ * for an endless game mode, which the renderers and the {@code Mover} already
+ * accept.
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-12
+ * @since v1.0
+ * @version v1.0
+ */
+@ThreadSafe
+public final class ChunkedMaze implements CellSource {
+	/** Width and height of a chunk (in maze cells) */
+	public static final int CHUNK_SIZE = 64;
+	/** Default number of chunks kept in memory */
+	public static final int DEFAULT_CAPACITY = 64;
+	/** Number of wall textures (3, 4 and 5) */
+	private static final int WALL_TEXTURES = 3;
+
+	private final long seed;
+	private final int capacity;
+	/** The generated chunks (in access order), guarded by itself */
+	private final LinkedHashMap<Long, Chunk> chunks;
+
+	/**
+	 * Constructor. Keeps {@link #DEFAULT_CAPACITY} chunks in memory.
+	 *
+	 * @param seed the world seed.
+	 */
+	public ChunkedMaze(long seed) {
+		this(seed, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param seed     the world seed.
+	 * @param capacity the maximum number of chunks kept in memory.
+	 * @throws IllegalArgumentException if the capacity is less than 1.
+	 */
+	@SuppressWarnings("serial")
+	public ChunkedMaze(long seed, int capacity) throws IllegalArgumentException {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity must be at least 1 chunk");
+		}
+		this.seed = seed;
+		this.capacity = capacity;
+		chunks = new LinkedHashMap<Long, Chunk>(capacity * 4 / 3 + 1, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(java.util.Map.Entry<Long, Chunk> eldest) {
+				return size() > ChunkedMaze.this.capacity;
+			}
+		};
+	}
+
+	@Override
+	public int getCell(int x, int y) {
+		return getCell(x, y, null);
+	}
+
+	/**
+	 * {@inheritDoc} The cursor is not thread safe: it must only be used by one
+	 * thread at a time.
+	 */
+	@Override
+	public CellSource cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * Gets the value of a cell of the map, through a cursor.
+	 *
+	 * @param x      x-location of the cell.
+	 * @param y      y-location of the cell.
+	 * @param cursor the cursor of the caller (null to look the chunk up in the
+	 *               cache).
+	 * @return the value of the cell (0 if the cell is empty).
+	 */
+	private int getCell(int x, int y, Cursor cursor) {
+		if (x < 0 || y < 0) {
+			return OUTSIDE;
+		}
+		final boolean xOdd = (x & 1) != 0;
+		final boolean yOdd = (y & 1) != 0;
+		if (xOdd && yOdd) {
+			return 0; // inside a maze cell
+		}
+		if (!xOdd && !yOdd) {
+			return wall(x, y); // corner
+		}
+
+		final int xCell = x >> 1;
+		final int yCell = y >> 1;
+		final int xChunk = xCell / CHUNK_SIZE;
+		final int yChunk = yCell / CHUNK_SIZE;
+		Chunk chunk = (cursor != null) ? cursor.recent : null;
+		if (chunk == null || chunk.x != xChunk || chunk.y != yChunk) {
+			chunk = chunk(xChunk, yChunk);
+			if (cursor != null) {
+				cursor.recent = chunk;
+			}
+		}
+		final byte cell = chunk.cells[xCell % CHUNK_SIZE + (yCell % CHUNK_SIZE) * CHUNK_SIZE];
+		final int opening = xOdd ? CellGrid.NORTH : CellGrid.WEST;
+		return ((cell & opening) != 0) ? 0 : wall(x, y);
+	}
+
+	/**
+	 * @return the world seed.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return the maximum number of chunks kept in memory.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return the number of chunks that are in memory.
+	 */
+	public int getCachedChunks() {
+		synchronized (chunks) {
+			return chunks.size();
+		}
+	}
+
+	/**
+	 * Finds a chunk in the cache, or generates it. The chunk is generated
+	 * without holding the lock of the cache, so the other threads keep finding
+	 * their chunks meanwhile. If two threads generate the same chunk at once,
+	 * both generate the same cells, and the first one is kept.
+	 *
+	 * @param xChunk x-location of the chunk (in chunks).
+	 * @param yChunk y-location of the chunk (in chunks).
+	 * @return the chunk.
+	 */
+	private Chunk chunk(int xChunk, int yChunk) {
+		final Long key = ((long) xChunk << 32) | yChunk;
+		Chunk chunk;
+		synchronized (chunks) {
+			chunk = chunks.get(key);
+		}
+		if (chunk != null) {
+			return chunk;
+		}
+
+		final Chunk generated = new Chunk(xChunk, yChunk, generateChunk(xChunk, yChunk));
+		synchronized (chunks) {
+			chunk = chunks.putIfAbsent(key, generated);
+		}
+		return (chunk != null) ? chunk : generated;
+	}
+
+	/**
+	 * Generates the maze cells of a chunk.
+	 *
+	 * @param xChunk x-location of the chunk (in chunks).
+	 * @param yChunk y-location of the chunk (in chunks).
+	 * @return the maze cells of the chunk (row after row, as in {@link CellGrid}).
+	 */
+	private byte[] generateChunk(int xChunk, int yChunk) {
+		final SplittableRandom rand = new SplittableRandom(mix(seed ^ mix(((long) xChunk << 32) | yChunk)));
+		final byte[] cells = new byte[CHUNK_SIZE * CHUNK_SIZE];
+		try {
+			EllerGenerator.generate(CHUNK_SIZE, CHUNK_SIZE, rand.nextLong(),
+					(y, row) -> System.arraycopy(row, 0, cells, (int) y * CHUNK_SIZE, CHUNK_SIZE));
+		} catch (IOException e) {
+			throw new AssertionError("Copying rows into an array cannot fail", e);
+		}
+
+		// the entry of the chunk maze is replaced by the walls between the chunks
+		for (int x = 0; x < CHUNK_SIZE; x++) {
+			cells[x] &= ~CellGrid.NORTH;
+		}
+		final int north = rand.nextInt(CHUNK_SIZE);
+		final int west = rand.nextInt(CHUNK_SIZE);
+		if (yChunk > 0) {
+			cells[north] |= CellGrid.NORTH;
+		}
+		if (xChunk > 0) {
+			cells[west * CHUNK_SIZE] |= CellGrid.WEST;
+		}
+		return cells;
+	}
+
+	/**
+	 * Picks the texture of a wall from its location.
+	 *
+	 * @param x x-location of the wall.
+	 * @param y y-location of the wall.
+	 * @return the value of the wall (3 to 5).
+	 */
+	private int wall(int x, int y) {
+		return OUTSIDE + (int) ((mix(seed ^ (((long) x << 32) | y)) >>> 1) % WALL_TEXTURES);
+	}
+
+	/**
+	 * Mixes the bits of a number (the finalizer of SplitMix64), so that nearby
+	 * locations get unrelated seeds.
+	 *
+	 * @param z the number.
+	 * @return the mixed number.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * A cursor over the maze for a single caller. It remembers the last chunk it
+	 * looked up, so the cells of the same chunk are found without the cache. A
+	 * chunk that was dropped from the cache stays valid for the cursor (it is
+	 * never modified).
+	 */
+	private final class Cursor implements CellSource {
+		/** The last chunk that was looked up (null if none yet) */
+		private Chunk recent;
+
+		@Override
+		public int getCell(int x, int y) {
+			return ChunkedMaze.this.getCell(x, y, this);
+		}
+	}
+
+	/**
+	 * A generated chunk and its location.
+	 */
+	private static final class Chunk {
+		final int x;
+		final int y;
+		final byte[] cells;
+
+		Chunk(int x, int y, byte[] cells) {
+			this.x = x;
+			this.y = y;
+			this.cells = cells;
+		}
+	}
+}
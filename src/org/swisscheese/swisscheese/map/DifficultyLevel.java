@@ -16,10 +16,21 @@
  */
 package org.swisscheese.swisscheese.map;
 
+import java.util.Arrays;
+
 import org.swisscheese.swisscheese.map.maze.CellGrid;
+import org.swisscheese.swisscheese.map.maze.MazeAlgorithm;
 
 /**
- * An <code>enum</code> for the difficulty level of the maze.
+ * An <code>enum</code> for the difficulty level of the maze. Every level has
+ * the size of the maze and the {@link MazeAlgorithm} that generates it (the
+ * harder levels use algorithms with more dead-ends).
+ * <p>
+ * The levels after {@link #EXTREME} are large enough that they are generated
+ * asynchronously (see {@link Map#generateAsync(int, MazeAlgorithm,
+ * org.swisscheese.swisscheese.map.maze.GenerationMonitor)}), with a time budget
+ * for each level. They are only offered if the maze fits in the memory of the
+ * JVM (see {@link #available()}).
  * 
  * @author Alex Kalinins
  * @since 2018-12-27
@@ -27,20 +38,42 @@ import org.swisscheese.swisscheese.map.maze.CellGrid;
  * @version v1.0
  */
 public enum DifficultyLevel {
-	EASY(5, "Easy Peasy (11x11)"), NORMAL(10, "Up for a challange (21x21)"), HARD(20, "I'm a pro! (41x41)"),
-	EXTREME(50, "Wasting my time (101x101)");
+	EASY(5, MazeAlgorithm.BACKTRACKER, 10, "Easy Peasy (11x11)"),
+	NORMAL(10, MazeAlgorithm.BACKTRACKER, 10, "Up for a challange (21x21)"),
+	HARD(20, MazeAlgorithm.WILSON, 10, "I'm a pro! (41x41)"),
+	EXTREME(50, MazeAlgorithm.PRIM, 10, "Wasting my time (101x101)"),
+	MASSIVE(500, MazeAlgorithm.PRIM, 30, "Bring snacks (1001x1001)"),
+	GIGANTIC(2000, MazeAlgorithm.PARALLEL_BACKTRACKER, 60, "Call in sick tomorrow (4001x4001)"),
+	ENDLESS(10000, MazeAlgorithm.PARALLEL_BACKTRACKER, 300, "See you next year (20001x20001)");
+
+	/**
+	 * The bytes needed for each cell of the maze: everything that is allocated to
+	 * generate the maze and to play it, which is more than is ever in memory at
+	 * once. The arrays of the generator (up to 12), the {@code CellGrid} (1), the
+	 * map array (16, four map cells for every cell of the maze), and its
+	 * {@link MazeGrid} (4), with the rest to spare for the lines of the map array
+	 * and the border of the grid. Saves are streamed to and from the file, so
+	 * they do not add another copy of the map.
+	 */
+	private static final long BYTES_PER_CELL = 36;
 
 	private final int size;
+	private final MazeAlgorithm algorithm;
+	private final int budgetSeconds;
 	private final String desc;
 
 	/**
 	 * Private constructor for {@code DifficultyLevel} enums.
 	 * 
-	 * @param size The size of the {@link CellGrid} of the maze.
-	 * @param desc A playful description of the {@code DifficultyLevel}.
+	 * @param size          The size of the {@link CellGrid} of the maze.
+	 * @param algorithm     The algorithm that generates the maze.
+	 * @param budgetSeconds The longest the maze can take to generate.
+	 * @param desc          A playful description of the {@code DifficultyLevel}.
 	 */
-	private DifficultyLevel(int size, String desc) {
+	private DifficultyLevel(int size, MazeAlgorithm algorithm, int budgetSeconds, String desc) {
 		this.size = size;
+		this.algorithm = algorithm;
+		this.budgetSeconds = budgetSeconds;
 		this.desc = desc;
 	}
 
@@ -48,6 +81,47 @@ public enum DifficultyLevel {
 		return size;
 	}
 
+	public final MazeAlgorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * @return the longest the maze can take to generate, in milliseconds.
+	 */
+	public final long getTimeBudget() {
+		return budgetSeconds * 1000L;
+	}
+
+	/**
+	 * @return about how many bytes are needed to generate the maze of this level.
+	 */
+	public final long estimateMemory() {
+		return estimateMemory(size);
+	}
+
+	/**
+	 * @param size the size of the {@link CellGrid} of a maze.
+	 * @return about how many bytes are needed to generate a maze of that size.
+	 */
+	public static long estimateMemory(int size) {
+		return BYTES_PER_CELL * size * size;
+	}
+
+	/**
+	 * @return true if the maze of this level fits in the largest heap of the JVM.
+	 */
+	public final boolean fitsInMemory() {
+		return estimateMemory() < Runtime.getRuntime().maxMemory();
+	}
+
+	/**
+	 * @return the levels whose mazes fit in the largest heap of the JVM (the
+	 *         levels up to {@link #EXTREME} always do).
+	 */
+	public static DifficultyLevel[] available() {
+		return Arrays.stream(values()).filter(DifficultyLevel::fitsInMemory).toArray(DifficultyLevel[]::new);
+	}
+
 	public final String toString() {
 //		return this.name(); // get name
 		return desc; // get funny desc
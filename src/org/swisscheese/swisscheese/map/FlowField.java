@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.map;
+
+import org.swisscheese.swisscheese.annotations.Immutable;
+
+/**
+ * The distance from every cell of a map to a target (for example the exit),
+ * computed by {@link MazeSolver#flowField(MazeGrid, int, int)}. Following the
+ * direction of any cell always leads to the target along a shortest path, so a
+ * single flow field can give hints and drive bots from anywhere in the map.
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-14
+ * @since v1.0
+ * @version v1.0
+ */
+@Immutable
+public final class FlowField {
+	private final MazeGrid grid;
+	/** The distance of every index of the grid (-1 if the target is unreachable) */
+	private final int[] distance;
+	/** The index deltas of the 4 neighbors of a cell */
+	private final int[] deltas;
+
+	/**
+	 * Constructor. Used by {@link MazeSolver}.
+	 *
+	 * @param grid     the grid of the map.
+	 * @param distance the distance of every index of the grid.
+	 */
+	FlowField(MazeGrid grid, int[] distance) {
+		this.grid = grid;
+		this.distance = distance;
+		deltas = MazeSolver.neighborDeltas(grid);
+	}
+
+	/**
+	 * Gets the length of the shortest path from a cell to the target.
+	 *
+	 * @param x x-location of the cell.
+	 * @param y y-location of the cell.
+	 * @return the number of steps to the target, or -1 if the cell is a wall or
+	 *         the target cannot be reached.
+	 */
+	public int getDistance(int x, int y) {
+		if (x < 0 || y < 0 || x >= grid.getWidth() || y >= grid.getHeight()) {
+			return -1;
+		}
+		return distance[grid.indexOf(x, y)];
+	}
+
+	/**
+	 * Gets the x direction of the next step towards the target.
+	 *
+	 * @param x x-location of the cell.
+	 * @param y y-location of the cell.
+	 * @return -1, 0 or 1.
+	 */
+	public int getStepX(int x, int y) {
+		final int delta = step(x, y);
+		return (delta == grid.getStride()) ? 1 : (delta == -grid.getStride()) ? -1 : 0;
+	}
+
+	/**
+	 * Gets the y direction of the next step towards the target.
+	 *
+	 * @param x x-location of the cell.
+	 * @param y y-location of the cell.
+	 * @return -1, 0 or 1.
+	 */
+	public int getStepY(int x, int y) {
+		final int delta = step(x, y);
+		return (delta == 1) ? 1 : (delta == -1) ? -1 : 0;
+	}
+
+	/**
+	 * Finds the neighbor of a cell that is one step closer to the target.
+	 *
+	 * @param x x-location of the cell.
+	 * @param y y-location of the cell.
+	 * @return the index delta of the neighbor, or 0 if the cell is the target, a
+	 *         wall or cannot reach the target.
+	 */
+	private int step(int x, int y) {
+		final int d = getDistance(x, y);
+		if (d <= 0) {
+			return 0;
+		}
+		final int index = grid.indexOf(x, y);
+		for (int delta : deltas) {
+			if (distance[index + delta] == d - 1) {
+				return delta;
+			}
+		}
+		return 0;
+	}
+}
@@ -17,14 +17,21 @@
 package org.swisscheese.swisscheese.map;
 
 import java.security.SecureRandom;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
 
 import org.swisscheese.swisscheese.annotations.Immutable;
-import org.swisscheese.swisscheese.map.maze.Generator;
+import org.swisscheese.swisscheese.map.maze.GenerationMonitor;
+import org.swisscheese.swisscheese.map.maze.Maze;
+import org.swisscheese.swisscheese.map.maze.MazeAlgorithm;
 import org.swisscheese.swisscheese.math.GeomPoint2D;
 
 /**
  * Map object of the SwissCheese game
+ * <p>
+ * A map is generated from a seed by a {@link MazeAlgorithm}. The same
+ * algorithm, size and seed always generate the same map (including the
+ * textures of the walls).
  * 
  * @author Alex Kalinins
  * @since 2018-12-10
@@ -39,39 +46,119 @@ public final class Map {
 	private final GeomPoint2D<Integer> entry;
 	private final GeomPoint2D<Integer> exit;
 	private final int size; // this size is in walls, not cells
+	private final long seed; // 0 for maps saved before seeds were recorded
+	/**
+	 * The flat copy of the map, built with the map (or when it is first needed,
+	 * for a loaded map). Not saved.
+	 */
+	private transient volatile MazeGrid grid;
 
 	/**
-	 * Constructor for Map
+	 * Constructor for Map. The map is generated from a random seed.
 	 * 
 	 * @param size the size of the maze (measured in number of grids in CellGrid.
 	 *             True size of the maze will be size*2+1).
 	 */
 	public Map(int size) {
-		map = generateMaze(size);
-		entry = Generator.getEntry();
-		exit = Generator.getExit();
+		this(size, new SecureRandom().nextLong());
+	}
+
+	/**
+	 * Constructor for Map. The map is generated by
+	 * {@link MazeAlgorithm#BACKTRACKER}.
+	 * 
+	 * @param size the size of the maze (measured in number of grids in CellGrid.
+	 *             True size of the maze will be size*2+1).
+	 * @param seed the seed from which the map is generated.
+	 */
+	public Map(int size, long seed) {
+		this(size, seed, MazeAlgorithm.BACKTRACKER);
+	}
+
+	/**
+	 * Constructor for Map. The map is generated from a random seed.
+	 * 
+	 * @param size      the size of the maze (measured in number of grids in
+	 *                  CellGrid. True size of the maze will be size*2+1).
+	 * @param algorithm the algorithm that generates the maze.
+	 */
+	public Map(int size, MazeAlgorithm algorithm) {
+		this(size, new SecureRandom().nextLong(), algorithm);
+	}
+
+	/**
+	 * Constructor for Map
+	 * 
+	 * @param size      the size of the maze (measured in number of grids in
+	 *                  CellGrid. True size of the maze will be size*2+1).
+	 * @param seed      the seed from which the map is generated.
+	 * @param algorithm the algorithm that generates the maze.
+	 */
+	public Map(int size, long seed, MazeAlgorithm algorithm) {
+		this(size, seed, algorithm, GenerationMonitor.NONE);
+	}
+
+	/**
+	 * Constructor for Map that reports the progress of the generation to
+	 * <code>monitor</code>. The time budget of the monitor also covers the steps
+	 * after the maze is carved (the map array and its {@link MazeGrid}).
+	 * 
+	 * @param size      the size of the maze (measured in number of grids in
+	 *                  CellGrid. True size of the maze will be size*2+1).
+	 * @param seed      the seed from which the map is generated.
+	 * @param algorithm the algorithm that generates the maze.
+	 * @param monitor   the monitor of the generation.
+	 * @throws java.util.concurrent.CancellationException if the monitor stopped
+	 *                                                    the generation.
+	 */
+	public Map(int size, long seed, MazeAlgorithm algorithm, GenerationMonitor monitor) {
+		final Maze maze = algorithm.generateMaze(size, seed, monitor);
+		this.seed = seed;
+		entry = maze.getEntry();
+		exit = maze.getExit();
+		// the steps after carving do not report progress, but for large mazes they
+		// take long enough to go over the budget
+		monitor.checkBudget();
+		final int[][] array = maze.toArray();
+		monitor.checkBudget();
+		map = applyTextures(array);
+		monitor.checkBudget();
+		grid = new MazeGrid(map);
+		monitor.checkBudget();
 
 		this.size = map.length;
+		monitor.finish();
+	}
 
-		this.printMap();
+	/**
+	 * Generates a map from a random seed on another thread, so the calling thread
+	 * (for example the Swing thread) is not blocked by large mazes.
+	 * 
+	 * @param size      the size of the maze (measured in number of grids in
+	 *                  CellGrid. True size of the maze will be size*2+1).
+	 * @param algorithm the algorithm that generates the maze.
+	 * @param monitor   the monitor of the generation.
+	 * @return the future map. It completes with a
+	 *         {@link java.util.concurrent.CancellationException} if the monitor
+	 *         stopped the generation.
+	 */
+	public static CompletableFuture<Map> generateAsync(int size, MazeAlgorithm algorithm,
+			GenerationMonitor monitor) {
+		final long seed = new SecureRandom().nextLong();
+		return CompletableFuture.supplyAsync(() -> new Map(size, seed, algorithm, monitor));
 	}
 
 	/**
-	 * Calls maze generator to generate maze.
-	 * <p>
-	 * Randomizes all walls that are not entry or exit walls.
+	 * Randomizes all walls that are not entry or exit walls, and marks the entry
+	 * and exit walls.
 	 * 
-	 * @param size the size of the maze (measured in number of grids)
+	 * @param map the map array of the generated maze.
 	 * @return 2D Integer array of the maze.
-	 * @see maze#Generator#generateMaze(size)
+	 * @see MazeAlgorithm#generateMaze(int, long)
 	 */
-	private int[][] generateMaze(int size) {
-		int[][] map = Generator.generateMaze(size);
-
-		GeomPoint2D<Integer> entry = Generator.getEntry();
-		GeomPoint2D<Integer> exit = Generator.getExit();
-		
-		Random r = new SecureRandom();
+	private int[][] applyTextures(int[][] map) {
+		// a different stream than the one of the maze
+		SplittableRandom r = new SplittableRandom(seed).split();
 		int val;
 		for (int i = 0; i < map.length; i++) {
 			for (int j = 0; j < map[i].length; j++) {
@@ -86,13 +173,45 @@ public final class Map {
 		map[entry.getX()][entry.getY()] = 1;
 		map[exit.getX()][exit.getY()] = 2;
 
-		
-
 		return map;
 	}
 
+	/**
+	 * Getter for a copy of the map array.
+	 * 
+	 * @return a new copy of the map array (every line is copied).
+	 */
 	public int[][] getMap() {
-		return map.clone();
+		final int[][] copy = new int[map.length][];
+		for (int i = 0; i < map.length; i++) {
+			copy[i] = map[i].clone();
+		}
+		return copy;
+	}
+
+	/**
+	 * Getter for the cells of this map as a {@link MazeGrid}, which the
+	 * ray-caster steps through without bounds checks. The grid is built the first
+	 * time it is needed (also for maps that were loaded from a save).
+	 * 
+	 * @return the cells of this map.
+	 */
+	public MazeGrid getCellSource() {
+		MazeGrid cells = grid;
+		if (cells == null) {
+			// built at most a few times if threads race, and always the same
+			grid = cells = new MazeGrid(map);
+		}
+		return cells;
+	}
+
+	/**
+	 * Getter for the seed from which the map was generated.
+	 * 
+	 * @return the seed (0 if the map was saved before seeds were recorded).
+	 */
+	public long getSeed() {
+		return seed;
 	}
 
 	public int getSize() {
@@ -108,12 +227,14 @@ public final class Map {
 	}
 
 	/**
-	 * Prints the maze in console
+	 * Prints the maze in console (for debugging; the output is as large as the
+	 * map).
 	 */
 	public void printMap() {
 		System.out.println("MAP: ");
 		System.out.println("(start: s; end: e)");
 
+		final char[] line = new char[this.size];
 		for(int i = 0; i < this.size; i++){
 			for(int j = 0; j < this.size; j++){
 				char c = ' ';
@@ -126,9 +247,9 @@ public final class Map {
 					c = '\u2588';
 				}
 
-				System.out.print(c);
+				line[j] = c;
 			}
-			System.out.print("\n");
+			System.out.println(line);
 		}
 	}
 }
@@ -0,0 +1,214 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.map;
+
+import java.util.Arrays;
+
+import org.swisscheese.swisscheese.annotations.Immutable;
+
+/**
+ * The cells of a map in a single flat {@code byte} array, one line of the map
+ * after another. The location (x, y) is at index
+ * <code>(x + BORDER) * stride + (y + BORDER)</code>, so a step in x is
+ * <code>&plusmn;stride</code> and a step in y is <code>&plusmn;1</code>.
+ * <p>
+ * The map is surrounded by a solid wall {@link #BORDER} cells thick (on top of
+ * the wall that the maze already has). A ray that starts inside the map always
+ * hits a wall before it can leave the array, so the ray-caster steps through
+ * the array with index deltas alone: one array load per step, and no bounds
+ * checks of its own.
+ * <p>
+ * The grid also holds a distance field for empty-space skipping: an empty cell
+ * holds the negative Chebyshev distance to the nearest wall (capped at
+ * {@link #MAX_DISTANCE}), instead of 0. Every cell closer than that distance
+ * is empty, so a ray can jump over several cells at once in open areas. The
+ * field is computed once, with a forward and a backward sweep over the grid.
+ * {@link #getCell(int, int)} still returns 0 for every empty cell.
+ * <p>
+ * The cells are never modified after the grid is created.
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-13
+ * @since v1.0
+ * @version v1.0
+ */
+@Immutable
+public final class MazeGrid implements CellSource {
+	/** Thickness of the solid wall around the map */
+	public static final int BORDER = 1;
+	/** Largest distance stored in the distance field */
+	public static final int MAX_DISTANCE = 127;
+
+	private final byte[] cells;
+	private final int width;
+	private final int height;
+	private final int stride;
+
+	/**
+	 * Constructor. Copies a map array into the grid.
+	 *
+	 * @param map the map array (indexed <code>map[x][y]</code>, every line as
+	 *            long as the first). The values must be between 0 and 127.
+	 */
+	public MazeGrid(int[][] map) {
+		width = map.length;
+		height = map[0].length;
+		stride = height + BORDER * 2;
+		cells = new byte[(width + BORDER * 2) * stride];
+		Arrays.fill(cells, (byte) OUTSIDE);
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				cells[indexOf(x, y)] = (byte) map[x][y];
+			}
+		}
+		computeDistances();
+	}
+
+	/**
+	 * Computes the distance field: the Chebyshev distance from every empty cell
+	 * to the nearest wall. The first sweep takes the distances from the
+	 * neighbors above and to the left, and the second sweep from the neighbors
+	 * below and to the right. The distances are written straight into the cells
+	 * (walls are positive, so they are never mistaken for a distance), without
+	 * any other array as large as the grid.
+	 */
+	private void computeDistances() {
+		final int lines = cells.length / stride;
+		int i;
+		int d;
+		for (int x = 0; x < lines; x++) {
+			for (int y = 0; y < stride; y++) {
+				i = x * stride + y;
+				if (cells[i] > 0) {
+					continue; // walls are at 0
+				}
+				d = MAX_DISTANCE;
+				if (x > 0) {
+					d = Math.min(d, distance(cells[i - stride]) + 1);
+					if (y > 0)
+						d = Math.min(d, distance(cells[i - stride - 1]) + 1);
+					if (y < stride - 1)
+						d = Math.min(d, distance(cells[i - stride + 1]) + 1);
+				}
+				if (y > 0)
+					d = Math.min(d, distance(cells[i - 1]) + 1);
+				cells[i] = (byte) -d;
+			}
+		}
+		for (int x = lines - 1; x >= 0; x--) {
+			for (int y = stride - 1; y >= 0; y--) {
+				i = x * stride + y;
+				if (cells[i] > 0) {
+					continue;
+				}
+				d = distance(cells[i]);
+				if (x < lines - 1) {
+					d = Math.min(d, distance(cells[i + stride]) + 1);
+					if (y > 0)
+						d = Math.min(d, distance(cells[i + stride - 1]) + 1);
+					if (y < stride - 1)
+						d = Math.min(d, distance(cells[i + stride + 1]) + 1);
+				}
+				if (y < stride - 1)
+					d = Math.min(d, distance(cells[i + 1]) + 1);
+				cells[i] = (byte) -d;
+			}
+		}
+	}
+
+	/**
+	 * Reads the distance to the nearest wall from a cell that was already swept.
+	 *
+	 * @param cell the value of the cell.
+	 * @return 0 for a wall, or the distance stored in an empty cell.
+	 */
+	private static int distance(byte cell) {
+		return (cell > 0) ? 0 : -cell;
+	}
+
+	@Override
+	public int getCell(int x, int y) {
+		if (x < -BORDER || y < -BORDER || x >= width + BORDER || y >= height + BORDER) {
+			return OUTSIDE;
+		}
+		final int cell = cells[indexOf(x, y)];
+		return (cell > 0) ? cell : 0;
+	}
+
+	/**
+	 * Finds the index of a location in the cells array.
+	 *
+	 * @param x x-location (first index of the map array).
+	 * @param y y-location (second index of the map array).
+	 * @return the index of the location.
+	 */
+	public int indexOf(int x, int y) {
+		return (x + BORDER) * stride + (y + BORDER);
+	}
+
+	/**
+	 * Finds the x-location of an index of the cells array.
+	 *
+	 * @param index the index.
+	 * @return the x-location (first index of the map array).
+	 */
+	public int getX(int index) {
+		return index / stride - BORDER;
+	}
+
+	/**
+	 * Finds the y-location of an index of the cells array.
+	 *
+	 * @param index the index.
+	 * @return the y-location (second index of the map array).
+	 */
+	public int getY(int index) {
+		return index % stride - BORDER;
+	}
+
+	/**
+	 * Getter for the cells array. A wall is positive, and an empty cell is the
+	 * negative distance to the nearest wall. The array is shared, and must not be
+	 * modified.
+	 *
+	 * @return the cells of the grid.
+	 */
+	public byte[] getCells() {
+		return cells;
+	}
+
+	/**
+	 * @return the difference of index between two neighboring cells in x.
+	 */
+	public int getStride() {
+		return stride;
+	}
+
+	/**
+	 * @return the width of the map (first index, without the border).
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return the height of the map (second index, without the border).
+	 */
+	public int getHeight() {
+		return height;
+	}
+}
@@ -0,0 +1,281 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.map;
+
+import java.util.Arrays;
+
+import org.swisscheese.swisscheese.annotations.ThreadSafe;
+import org.swisscheese.swisscheese.math.GeomPoint2D;
+
+/**
+ * Finds paths through the cells of a {@link MazeGrid}. A cell can be walked
+ * through if it is empty, or if it is the entry or the exit of the maze.
+ * <p>
+ * All searches are Breadth-First Searches on {@code int} queues of the indices
+ * of the flat grid array, with the neighbors of a cell at fixed index deltas.
+ * The solid border of the grid stops every search, so the neighbors are never
+ * bounds checked.
+ * <ul>
+ * <li>{@link #flowField(MazeGrid, int, int)} finds the distance from every
+ * cell to one target.</li>
+ * <li>{@link #shortestPath(MazeGrid, int, int, int, int)} searches from both
+ * ends at once (always growing the smaller side by a whole level), and stops
+ * when the searches meet. It only keeps a {@code byte} for every cell (instead
+ * of an {@code int} distance), so it suits mazes too large for a flow
+ * field.</li>
+ * </ul>
+ * All state is kept in local variables, so many threads can search at once.
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-14
+ * @since v1.0
+ * @version v1.0
+ * @see <a href="https://en.wikipedia.org/wiki/Breadth-first_search">
+ *      Breadth-first search</a>
+ */
+@ThreadSafe
+public final class MazeSolver {
+	/** The value of the entry cell */
+	private static final int ENTRY = 1;
+	/** The value of the exit cell */
+	private static final int EXIT = 2;
+	/** Marks a cell reached from the start of the path */
+	private static final byte FORWARD = 1;
+	/** Marks a cell reached from the end of the path */
+	private static final byte BACKWARD = 2;
+	/** Marks a cell that was reached through a neighbor */
+	private static final byte REACHED = 4;
+	/** The bits of a mark above which the neighbor is kept */
+	private static final int NEIGHBOR_SHIFT = 3;
+
+	/** A private constructor - do not instantiate */
+	private MazeSolver() {
+		throw new SecurityException("MazeSolver not meant to be instantiated");
+	}
+
+	/**
+	 * Finds the shortest path from the entry to the exit of a map.
+	 *
+	 * @param map the map.
+	 * @return the indices of the cells of the path in {@link Map#getCellSource()}
+	 *         (see {@link #shortestPath(MazeGrid, int, int, int, int)}).
+	 */
+	public static int[] solve(Map map) {
+		final GeomPoint2D<Integer> entry = map.getEntry();
+		final GeomPoint2D<Integer> exit = map.getExit();
+		return shortestPath(map.getCellSource(), entry.getX(), entry.getY(), exit.getX(), exit.getY());
+	}
+
+	/**
+	 * Finds the distance from every cell of the grid to a target cell.
+	 *
+	 * @param grid the grid of the map.
+	 * @param x    x-location of the target.
+	 * @param y    y-location of the target.
+	 * @return the {@link FlowField} of the target.
+	 * @throws IllegalArgumentException if the target is a wall.
+	 */
+	public static FlowField flowField(MazeGrid grid, int x, int y) throws IllegalArgumentException {
+		final byte[] cells = grid.getCells();
+		final int target = walkableIndex(grid, x, y);
+		final int[] deltas = neighborDeltas(grid);
+		final int[] distance = new int[cells.length];
+		Arrays.fill(distance, -1);
+
+		// every cell is queued at most once
+		final int[] queue = new int[cells.length];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = target;
+		distance[target] = 0;
+
+		int cell;
+		int next;
+		while (head < tail) {
+			cell = queue[head++];
+			for (int delta : deltas) {
+				next = cell + delta;
+				if (distance[next] < 0 && walkable(cells[next])) {
+					distance[next] = distance[cell] + 1;
+					queue[tail++] = next;
+				}
+			}
+		}
+		return new FlowField(grid, distance);
+	}
+
+	/**
+	 * Finds a shortest path between two cells, searching from both cells at once.
+	 *
+	 * @param grid  the grid of the map.
+	 * @param fromX x-location of the first cell.
+	 * @param fromY y-location of the first cell.
+	 * @param toX   x-location of the last cell.
+	 * @param toY   y-location of the last cell.
+	 * @return the indices of the cells of the path in the grid (see
+	 *         {@link MazeGrid#getX(int)} and {@link MazeGrid#getY(int)}), from the
+	 *         first cell to the last cell. The length of the path is one less than
+	 *         the length of the array. An empty array if there is no path.
+	 * @throws IllegalArgumentException if either cell is a wall.
+	 */
+	public static int[] shortestPath(MazeGrid grid, int fromX, int fromY, int toX, int toY)
+			throws IllegalArgumentException {
+		final byte[] cells = grid.getCells();
+		final int start = walkableIndex(grid, fromX, fromY);
+		final int end = walkableIndex(grid, toX, toY);
+		if (start == end) {
+			return new int[] { start };
+		}
+		final int[] deltas = neighborDeltas(grid);
+
+		// the side that reached each cell, and the neighbor through which it was
+		// reached
+		final byte[] marks = new byte[cells.length];
+		int[] forward = new int[64];
+		int[] backward = new int[64];
+		int forwardHead = 0;
+		int forwardTail = 0;
+		int backwardHead = 0;
+		int backwardTail = 0;
+		forward[forwardTail++] = start;
+		backward[backwardTail++] = end;
+		marks[start] = FORWARD;
+		marks[end] = BACKWARD;
+
+		while (forwardHead < forwardTail && backwardHead < backwardTail) {
+			final boolean growForward = forwardTail - forwardHead <= backwardTail - backwardHead;
+			final byte side = growForward ? FORWARD : BACKWARD;
+			int[] queue = growForward ? forward : backward;
+			int head = growForward ? forwardHead : backwardHead;
+			int tail = growForward ? forwardTail : backwardTail;
+
+			// growing the side by one whole level
+			final int levelEnd = tail;
+			int cell;
+			int next;
+			while (head < levelEnd) {
+				cell = queue[head++];
+				for (int k = 0; k < deltas.length; k++) {
+					next = cell + deltas[k];
+					if (marks[next] == 0) {
+						if (walkable(cells[next])) {
+							marks[next] = (byte) (side | REACHED | (k << NEIGHBOR_SHIFT));
+							if (tail == queue.length) {
+								queue = Arrays.copyOf(queue, queue.length * 2);
+							}
+							queue[tail++] = next;
+						}
+					} else if ((marks[next] & 3) != side) {
+						// the searches met
+						return growForward ? joinPaths(cell, next, marks, deltas)
+								: joinPaths(next, cell, marks, deltas);
+					}
+				}
+			}
+
+			if (growForward) {
+				forward = queue;
+				forwardHead = head;
+				forwardTail = tail;
+			} else {
+				backward = queue;
+				backwardHead = head;
+				backwardTail = tail;
+			}
+		}
+		return new int[0];
+	}
+
+	/**
+	 * Joins the two halves of a path where the searches met.
+	 *
+	 * @param forwardCell  the cell reached from the start.
+	 * @param backwardCell the neighboring cell reached from the end.
+	 * @param marks        the marks of the search.
+	 * @param deltas       the index deltas of the neighbors.
+	 * @return the path from the start to the end.
+	 */
+	private static int[] joinPaths(int forwardCell, int backwardCell, byte[] marks, int[] deltas) {
+		final int forwardLength = chainLength(forwardCell, marks, deltas);
+		final int[] path = new int[forwardLength + chainLength(backwardCell, marks, deltas)];
+
+		int cell = forwardCell;
+		for (int i = forwardLength - 1; i >= 0; i--) {
+			path[i] = cell;
+			cell = parent(cell, marks, deltas);
+		}
+		cell = backwardCell;
+		for (int i = forwardLength; i < path.length; i++) {
+			path[i] = cell;
+			cell = parent(cell, marks, deltas);
+		}
+		return path;
+	}
+
+	/**
+	 * @return the number of cells from a cell back to the cell its search started
+	 *         from (both included).
+	 */
+	private static int chainLength(int cell, byte[] marks, int[] deltas) {
+		int length = 1;
+		int parent;
+		while ((parent = parent(cell, marks, deltas)) != cell) {
+			cell = parent;
+			length++;
+		}
+		return length;
+	}
+
+	/**
+	 * @return the cell through which a cell was reached (the cell itself if the
+	 *         search started from it).
+	 */
+	private static int parent(int cell, byte[] marks, int[] deltas) {
+		if ((marks[cell] & REACHED) == 0) {
+			return cell; // the start or the end
+		}
+		return cell - deltas[marks[cell] >> NEIGHBOR_SHIFT];
+	}
+
+	/**
+	 * @return true if the cell can be walked through.
+	 */
+	private static boolean walkable(byte cell) {
+		return cell <= 0 || cell == ENTRY || cell == EXIT;
+	}
+
+	/**
+	 * Checks that a cell can be walked through, and finds its index.
+	 *
+	 * @return the index of the cell.
+	 * @throws IllegalArgumentException if the cell is a wall or outside the map.
+	 */
+	private static int walkableIndex(MazeGrid grid, int x, int y) throws IllegalArgumentException {
+		if (x < 0 || y < 0 || x >= grid.getWidth() || y >= grid.getHeight()
+				|| !walkable(grid.getCells()[grid.indexOf(x, y)])) {
+			throw new IllegalArgumentException("(" + x + ", " + y + ") is not an empty cell of the map");
+		}
+		return grid.indexOf(x, y);
+	}
+
+	/**
+	 * @return the index deltas of the 4 neighbors of a cell of the grid.
+	 */
+	static int[] neighborDeltas(MazeGrid grid) {
+		return new int[] { grid.getStride(), -grid.getStride(), 1, -1 };
+	}
+}
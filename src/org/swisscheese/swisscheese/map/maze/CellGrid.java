@@ -16,9 +16,7 @@
  */
 package org.swisscheese.swisscheese.map.maze;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
 import org.swisscheese.swisscheese.math.GeomPoint2D;
 
@@ -28,7 +26,14 @@ import org.swisscheese.swisscheese.math.GeomPoint2D;
  * <p>
  * The CellGrid is similar to a chess/checkers board (but larger), with each
  * cell having a wall, and when generation algorithm is creating the maze, it
- * marks the 2D boolean arrays of the wall that it is breaking as true.
+ * marks the wall that it is breaking as open.
+ * <p>
+ * The state of each cell is packed into the bits of a single {@code byte} of a
+ * flat array: one bit for each open wall ({@link #NORTH}, {@link #EAST},
+ * {@link #SOUTH}, {@link #WEST}) and one for {@link #VISITED}. The cell
+ * <code>(x, y)</code> is at index <code>x + y * gridWidth</code>. A grid of
+ * 10,000x10,000 cells takes 100 MB, instead of five 2D {@code boolean}
+ * arrays.
  * <p>
  * CellGrid also has a method (checkRemainingPaths()) for checking the number of
  * paths that the algorithm can go (unvisited cells). If checkRemainingPaths
@@ -44,52 +49,86 @@ import org.swisscheese.swisscheese.math.GeomPoint2D;
  *
  */
 public class CellGrid {
-	private static int gridWidth;
-	private static int gridHeight;
-	private static boolean[][] northWall;
-	private static boolean[][] eastWall;
-	private static boolean[][] southWall;
-	private static boolean[][] westWall;
-	private static boolean[][] visited;
+	/** Bit of a cell that is set if its north wall is broken */
+	public static final byte NORTH = 1;
+	/** Bit of a cell that is set if its east wall is broken */
+	public static final byte EAST = 2;
+	/** Bit of a cell that is set if its south wall is broken */
+	public static final byte SOUTH = 4;
+	/** Bit of a cell that is set if its west wall is broken */
+	public static final byte WEST = 8;
+	/** Bit of a cell that is set if the cell was visited */
+	public static final byte VISITED = 16;
+
+	private final int gridWidth;
+	private final int gridHeight;
+	/** The packed cells (row after row) */
+	private final byte[] cells;
 
 	/**
 	 * Constructor
 	 * 
 	 * @param gridWidth  the width of the cell array
-	 * @param gridHeight
+	 * @param gridHeight the height of the cell array
 	 */
 	private CellGrid(int gridWidth, int gridHeight) {
-		CellGrid.gridWidth = gridWidth;
-		CellGrid.gridHeight = gridHeight;
-		northWall = new boolean[gridWidth][gridHeight];
-		eastWall = new boolean[gridWidth][gridHeight];
-		southWall = new boolean[gridWidth][gridHeight];
-		westWall = new boolean[gridWidth][gridHeight];
+		this.gridWidth = gridWidth;
+		this.gridHeight = gridHeight;
+		cells = new byte[gridWidth * gridHeight]; // no walls broken
+	}
 
-		visited = new boolean[gridWidth][gridHeight];
+	public static CellGrid newCellGrid(int gridWidth, int gridHeight) {
+		return new CellGrid(gridWidth, gridHeight);
+	}
 
-		// fills the arrays with false
-		for (int i = 0; i < gridWidth; i++) {
-			Arrays.fill(northWall[i], false);
-			Arrays.fill(eastWall[i], false);
-			Arrays.fill(southWall[i], false);
-			Arrays.fill(westWall[i], false);
-			Arrays.fill(visited[i], false);
+	public final int getGridWidth() {
+		return gridWidth;
+	}
 
-		}
+	public final int getGridHeight() {
+		return gridHeight;
 	}
 
-	public static CellGrid newCellGrid(int gridWidth, int gridHeight) {
-		return new CellGrid(gridWidth, gridHeight);
+	/**
+	 * Checks if the bits of a cell are set.
+	 * 
+	 * @param x    x-location of the cell
+	 * @param y    y-location of the cell
+	 * @param bits the bits being checked (for example {@link #NORTH})
+	 * @return true if all of the <code>bits</code> are set.
+	 */
+	public boolean isSet(int x, int y, int bits) {
+		return (cells[x + y * gridWidth] & bits) == bits;
+	}
+
+	/**
+	 * Sets the bits of a cell.
+	 * 
+	 * @param x    x-location of the cell
+	 * @param y    y-location of the cell
+	 * @param bits the bits being set (for example {@link #NORTH})
+	 */
+	public void set(int x, int y, int bits) {
+		cells[x + y * gridWidth] |= bits;
+	}
+
+	/**
+	 * Returns a {@link RowSink} that stores the rows it accepts in this grid. The
+	 * rows must be as wide as the grid.
+	 * 
+	 * @return a sink into this grid.
+	 */
+	public RowSink asRowSink() {
+		return (y, row) -> System.arraycopy(row, 0, cells, (int) y * gridWidth, gridWidth);
 	}
 
 	/**
 	 * The ENUM for each cardinal direction: NORTH, EAST, SOUTH and WEST.
 	 * <p>
-	 * The Direction enums contain abstract methods that involve direction, such as
-	 * breaking a wall in a certain direction. Abstract methods in Direction are
-	 * overloaded to work with both x and y int locations and {@code GeomPoint2D}
-	 * locations.
+	 * The Direction enums contain methods that involve direction, such as
+	 * breaking a wall in a certain direction of a cell of a {@link CellGrid}.
+	 * Methods in Direction are overloaded to work with both x and y int locations
+	 * and {@code GeomPoint2D} locations.
 	 * 
 	 * @author Alex Kalinins
 	 * @since v0.1
@@ -97,170 +136,42 @@ public class CellGrid {
 	 *
 	 */
 	public enum Direction {
-		NORTH {
-			@Override
-			public boolean directionAvailable(int x, int y) {
-				if (y == 0)
-					return false;
-				return !visited[x][y - 1];
-			}
-
-			@Override
-			public void breakWall(int x, int y) {
-				northWall[x][y] = true;
-			}
-
-			@Override
-			public GeomPoint2D<Integer> move(final int x, final int y) {
-				northWall[x][y] = true;
-
-				southWall[x][y - 1] = true;
-
-				visited[x][y - 1] = true;
-				return this.go(x, y);
-			}
-
-			@Override
-			public Direction antiDirection() {
-				return SOUTH;
-			}
-
-			@Override
-			public GeomPoint2D<Integer> go(int x, int y) {
-				point.setLocation(x, y - 1);
-				return point;
-			}
-
-			@Override
-			public GeomPoint2D<Integer> makeExit(int randomNumber) {
-				northWall[randomNumber][0] = true;
-				point.setLocation(randomNumber, 0);
-				return point;
-			}
-
-		},
-		SOUTH {
-			@Override
-			public boolean directionAvailable(int x, int y) {
-				if (y == gridHeight - 1)
-					return false;
-				return !visited[x][y + 1];
-			}
-
-			@Override
-			public void breakWall(int x, int y) {
-				southWall[x][y] = true;
-			}
-
-			@Override
-			public GeomPoint2D<Integer> move(final int x, final int y) {
-				southWall[x][y] = true;
-				northWall[x][y + 1] = true;
-				visited[x][y + 1] = true;
-				return this.go(x, y);
-			}
-
-			@Override
-			public Direction antiDirection() {
-				return NORTH;
-			}
-
-			@Override
-			public GeomPoint2D<Integer> go(int x, int y) {
-				point.setLocation(x, y + 1);
-				return point;
-			}
-
-			@Override
-			public GeomPoint2D<Integer> makeExit(int randomNumber) {
-				southWall[randomNumber][gridHeight - 1] = true;
-				point.setLocation(randomNumber, gridHeight - 1);
-				return point;
-			}
-
-		},
-		EAST {
-			@Override
-			public boolean directionAvailable(int x, int y) {
-				if (x == gridWidth - 1)
-					return false;
-				return !visited[x + 1][y];
-			}
-
-			@Override
-			public void breakWall(int x, int y) {
-				eastWall[x][y] = true;
-			}
-
-			@Override
-			public GeomPoint2D<Integer> move(final int x, final int y) {
-				eastWall[x][y] = true;
-				westWall[x + 1][y] = true;
-				visited[x + 1][y] = true;
-				return this.go(x, y);
-			}
-
-			@Override
-			public Direction antiDirection() {
-				return WEST;
-			}
-
-			@Override
-			public GeomPoint2D<Integer> go(int x, int y) {
-				point.setLocation(x + 1, y);
-				return point;
-			}
-
-			@Override
-			public GeomPoint2D<Integer> makeExit(int randomNumber) {
-				eastWall[gridWidth - 1][randomNumber] = true;
-				point.setLocation(gridWidth - 1, randomNumber);
-				return point;
-			}
-		},
-		WEST {
-			@Override
-			public boolean directionAvailable(int x, int y) {
-				if (x == 0)
-					return false;
-				return !visited[x - 1][y];
-			}
-
-			@Override
-			public void breakWall(int x, int y) {
-				westWall[x][y] = true;
-
-			}
-
-			@Override
-			public GeomPoint2D<Integer> move(final int x, final int y) {
-				westWall[x][y] = true;
-				eastWall[x - 1][y] = true;
-				visited[x - 1][y] = true;
-				return this.go(x, y);
-			}
-
-			@Override
-			public Direction antiDirection() {
-				return EAST;
-			}
-
-			@Override
-			public GeomPoint2D<Integer> go(int x, int y) {
-				point.setLocation(x - 1, y);
-				return point;
-			}
+		NORTH(CellGrid.NORTH, 0, -1), SOUTH(CellGrid.SOUTH, 0, 1), EAST(CellGrid.EAST, 1, 0),
+		WEST(CellGrid.WEST, -1, 0);
+
+		/** The bit of the wall in this direction */
+		private final byte wall;
+		/** The change of x when going in this direction */
+		private final int dx;
+		/** The change of y when going in this direction */
+		private final int dy;
+
+		private Direction(byte wall, int dx, int dy) {
+			this.wall = wall;
+			this.dx = dx;
+			this.dy = dy;
+		}
 
-			@Override
-			public GeomPoint2D<Integer> makeExit(int randomNumber) {
-				westWall[0][randomNumber] = true;
-				point.setLocation(0, randomNumber);
-				return point;
-			}
+		/**
+		 * @return the bit of the wall in this direction.
+		 */
+		public final byte wall() {
+			return wall;
+		}
 
-		};
+		/**
+		 * @return the change of x when going in this direction.
+		 */
+		public final int dx() {
+			return dx;
+		}
 
-		private static GeomPoint2D<Integer> point = new GeomPoint2D<>();
+		/**
+		 * @return the change of y when going in this direction.
+		 */
+		public final int dy() {
+			return dy;
+		}
 
 		/**
 		 * Uses the randomNumber in the argument to pick a cell on the wall of a
@@ -268,22 +179,42 @@ public class CellGrid {
 		 * <p>
 		 * Used to make the entry and exit of the maze.
 		 * 
+		 * @param grid         the grid of the maze
 		 * @param randomNumber random number to pick the exit point
 		 * @return point of the location of the exit/entry.
 		 */
-		public abstract GeomPoint2D<Integer> makeExit(int randomNumber);
+		public GeomPoint2D<Integer> makeExit(CellGrid grid, int randomNumber) {
+			final int x;
+			final int y;
+			if (dx == 0) {
+				x = randomNumber;
+				y = (dy < 0) ? 0 : grid.gridHeight - 1;
+			} else {
+				x = (dx < 0) ? 0 : grid.gridWidth - 1;
+				y = randomNumber;
+			}
+			grid.set(x, y, wall);
+			return new GeomPoint2D<>(x, y);
+		}
 
 		/**
 		 * Checks if the cell in that direction is unvisited
 		 * 
-		 * @param x x-location of the cell
-		 * @param y y-location of the cell
+		 * @param grid the grid of the maze
+		 * @param x    x-location of the cell
+		 * @param y    y-location of the cell
 		 * @return true if cell unvisited
 		 */
-		public abstract boolean directionAvailable(int x, int y);
+		public boolean directionAvailable(CellGrid grid, int x, int y) {
+			final int nx = x + dx;
+			final int ny = y + dy;
+			if (nx < 0 || ny < 0 || nx >= grid.gridWidth || ny >= grid.gridHeight)
+				return false;
+			return !grid.isSet(nx, ny, VISITED);
+		}
 
-		public boolean directionAvailable(GeomPoint2D<Integer> p) {
-			return this.directionAvailable((int) p.getX(), (int) p.getY());
+		public boolean directionAvailable(CellGrid grid, GeomPoint2D<Integer> p) {
+			return this.directionAvailable(grid, (int) p.getX(), (int) p.getY());
 		}
 
 		/**
@@ -291,40 +222,47 @@ public class CellGrid {
 		 * specified cell and the corresponding wall of an adjacent cell, use
 		 * Position.move
 		 * 
-		 * @param x x-location
-		 * @param y y-location
+		 * @param grid the grid of the maze
+		 * @param x    x-location
+		 * @param y    y-location
 		 */
-		public abstract void breakWall(int x, int y);
+		public void breakWall(CellGrid grid, int x, int y) {
+			grid.set(x, y, wall);
+		}
 
 		/**
 		 * Overloaded breakWall() to work with {@link GeomPoint2D}.
 		 * 
-		 * @param p the point of the cell whose wall is being broken.
-		 * @see Direction#breakWall(int, int);
+		 * @param grid the grid of the maze
+		 * @param p    the point of the cell whose wall is being broken.
+		 * @see Direction#breakWall(CellGrid, int, int);
 		 */
-		public void breakWall(GeomPoint2D<Integer> p) {
-			this.breakWall((int) p.getX(), (int) p.getY());
+		public void breakWall(CellGrid grid, GeomPoint2D<Integer> p) {
+			this.breakWall(grid, (int) p.getX(), (int) p.getY());
 		}
 
 		/**
 		 * Breaks a wall of a specified wall <b>and</b> the corresponding wall of the
 		 * adjacent cell. Also marks the adjacent cell side as visited
 		 * 
-		 * @param x x-location of the current cell
-		 * @param y y-location of the current cell
-		 * @return point of the current cell <b>after</b> move
+		 * @param grid the grid of the maze
+		 * @param x    x-location of the current cell
+		 * @param y    y-location of the current cell
 		 */
-		public abstract GeomPoint2D<Integer> move(final int x, final int y);
+		public void move(CellGrid grid, final int x, final int y) {
+			grid.set(x, y, wall);
+			grid.set(x + dx, y + dy, antiDirection().wall | VISITED);
+		}
 
 		/**
 		 * Overloaded move() to work with {@link GeomPoint2D}
 		 * 
-		 * @param p starting position
-		 * @return point of current cell after move
-		 * @see Direction#move(int, int)
+		 * @param grid the grid of the maze
+		 * @param p    starting position
+		 * @see Direction#move(CellGrid, int, int)
 		 */
-		public GeomPoint2D<Integer> move(GeomPoint2D<Integer> p) {
-			return this.move(p.getX(), p.getY());
+		public void move(CellGrid grid, GeomPoint2D<Integer> p) {
+			this.move(grid, p.getX(), p.getY());
 		}
 
 		/**
@@ -332,7 +270,18 @@ public class CellGrid {
 		 * 
 		 * @return opposite direction
 		 */
-		public abstract Direction antiDirection();
+		public Direction antiDirection() {
+			switch (this) {
+			case NORTH:
+				return SOUTH;
+			case SOUTH:
+				return NORTH;
+			case EAST:
+				return WEST;
+			default:
+				return EAST;
+			}
+		}
 
 		/**
 		 * The point of a cell in a direction of a cell <b>without</b> breaking any
@@ -342,7 +291,9 @@ public class CellGrid {
 		 * @param y y-location
 		 * @return point of an adjacent cell
 		 */
-		public abstract GeomPoint2D<Integer> go(int x, int y);
+		public GeomPoint2D<Integer> go(int x, int y) {
+			return new GeomPoint2D<>(x + dx, y + dy);
+		}
 
 		/**
 		 * Cell in the direction from a current cell
@@ -363,7 +314,7 @@ public class CellGrid {
 	 * @param y y-location of the cell
 	 */
 	public void markVisited(int x, int y) {
-		visited[x][y] = true;
+		set(x, y, VISITED);
 	}
 
 	/**
@@ -374,7 +325,7 @@ public class CellGrid {
 	 * @return true if visited
 	 */
 	public boolean checkVisited(int x, int y) {
-		return visited[x][y];
+		return isSet(x, y, VISITED);
 	}
 
 	/**
@@ -386,7 +337,7 @@ public class CellGrid {
 	 * @return true if Direction direction is unvisited.
 	 */
 	public boolean checkDirection(int x, int y, Direction direction) {
-		return direction.directionAvailable(x, y);
+		return direction.directionAvailable(this, x, y);
 	}
 
 	/**
@@ -397,73 +348,76 @@ public class CellGrid {
 	 * Integers are used instead of booleans because the {@code int} value
 	 * represents the type of wall texture used. (randomly selected by a different
 	 * method).
+	 * <p>
+	 * Every cell becomes a 2x2 block of the array, in the format: <br>
+	 * 1 N <br>
+	 * W 0 <br>
+	 * with an extra line for the south walls of the last row and the east walls
+	 * of the last column.
+	 * 
+	 * @return CellGrid as a 2D {@code int} Array
+	 */
+	public int[][] gridTo2DArray() {
+		return gridTo2DArray(0);
+	}
+
+	/**
+	 * Converts the CellGrid object to an 2D {@code int} array (see
+	 * {@link #gridTo2DArray()}), surrounded by a solid wall.
 	 * 
+	 * @param border the thickness of the wall around the maze.
 	 * @return CellGrid as a 2D {@code int} Array
 	 */
-	public synchronized int[][] gridTo2DArray() {
-		List<List<Integer>> map = new ArrayList<List<Integer>>();
+	public int[][] gridTo2DArray(int border) {
+		final int lineLength = gridWidth * 2 + 1 + border * 2;
+		final int[][] map = new int[gridHeight * 2 + 1 + border * 2][];
+
+		for (int i = 0; i < border; i++) {
+			map[i] = solidLine(lineLength);
+			map[map.length - 1 - i] = solidLine(lineLength);
+		}
 
-		List<Integer> line1 = new ArrayList<Integer>();
-		List<Integer> line2 = new ArrayList<Integer>();
 		for (int j = 0; j < gridHeight; j++) {
-			line1 = new ArrayList<Integer>();
-			line2 = new ArrayList<Integer>();
+			final int[] line1 = solidLine(lineLength);
+			final int[] line2 = solidLine(lineLength);
 
 			for (int i = 0; i < gridWidth; i++) {
-				/**
-				 * In the format: <br>
-				 * 1 N <br>
-				 * W 0
-				 */
-
 				// 1, N
-				line1.add(1);
-				if (northWall[i][j])
-					line1.add(0);
-				else
-					line1.add(1);
+				line1[border + i * 2 + 1] = isSet(i, j, NORTH) ? 0 : 1;
 
 				// W, 0
-				if (westWall[i][j])
-					line2.add(0);
-				else
-					line2.add(1);
-				line2.add(0);
+				line2[border + i * 2] = isSet(i, j, WEST) ? 0 : 1;
+				line2[border + i * 2 + 1] = 0;
 			}
 
-			line1.add(1);
-			if (eastWall[gridWidth - 1][j])
-				line2.add(0);
-			else
-				line2.add(1);
+			line2[border + gridWidth * 2] = isSet(gridWidth - 1, j, EAST) ? 0 : 1;
 
-			map.add(line1);
-			map.add(line2);
+			map[border + j * 2] = line1;
+			map[border + j * 2 + 1] = line2;
 		}
 
-		line1 = new ArrayList<Integer>();
+		final int[] last = solidLine(lineLength);
 		for (int i = 0; i < gridWidth; i++) {
-			line1.add(1);
-			if (southWall[i][gridHeight - 1])
-				line1.add(0);
-			else
-				line1.add(1);
+			last[border + i * 2 + 1] = isSet(i, gridHeight - 1, SOUTH) ? 0 : 1;
 		}
-		line1.add(1); // corner piece
-
-		map.add(line1);
+		map[border + gridHeight * 2] = last;
 
-		int[][] primitiveMap = new int[map.size()][map.size()];
-		for (int i = 0; i < primitiveMap.length; i++) {
-			primitiveMap[i] = map.get(i).stream().mapToInt(Integer::intValue).toArray();
-		}
+		return map;
+	}
 
-		return primitiveMap;
+	/**
+	 * @param length the length of the line
+	 * @return a line of walls.
+	 */
+	private static int[] solidLine(int length) {
+		final int[] line = new int[length];
+		Arrays.fill(line, 1);
+		return line;
 	}
 
 	/**
 	 * Checks the number of possible directions the maze generator can go by
-	 * checking the visited[][] array of the adjacent cells.
+	 * checking if the adjacent cells are visited.
 	 * 
 	 * @param p point of the cell being checked
 	 * @return number of possible directions
@@ -475,118 +429,21 @@ public class CellGrid {
 
 	/**
 	 * Checks the number of possible directions the maze generator can go by
-	 * checking the visited[][] array of the adjacent cells.
+	 * checking if the adjacent cells are visited.
 	 * 
 	 * @param x x-location of the cell being checked
 	 * @param y y-location of the cell being checked
 	 * @return number of possible directions
 	 */
 	public int checkRemainingPaths(int x, int y) {
-		// wrong with a capital W
 		int directions = 0;
-		if (x == 0 && y == 0) {
-			// current cell is top left corner
-			if (!visited[x][y + 1])
-				directions++;
-			if (!visited[x + 1][y])
-				directions++;
-
-			return directions;
-
-		}
-		if (x == 0 && y == gridHeight - 1) {
-			// current cell is bottom left corner
-			if (!visited[x][y - 1])
-				directions++;
-			if (!visited[x + 1][y])
-				directions++;
-
-			return directions;
-
-		}
-		if (x == gridWidth - 1 && y == 0) {
-			// cell is top right corner
-			if (!visited[x][y + 1])
-				directions++;
-			if (!visited[x - 1][y])
-				directions++;
-
-			return directions;
-
-		}
-		if (x == gridWidth - 1 && y == gridHeight - 1) {
-			// cell is bottom right corner
-			if (!visited[x][y - 1])
-				directions++;
-			if (!visited[x - 1][y])
-				directions++;
-
-			return directions;
-
-		}
-
-		if (x == 0) {
-			// left row
-			directions = 0;
-			if (!visited[x][y + 1])
-				directions++;
-			if (!visited[x][y - 1])
-				directions++;
-			if (!visited[x + 1][y])
-				directions++;
-
-			return directions;
-
-		}
-		if (y == 0) {
-			// top row
-			directions = 0;
-			if (!visited[x - 1][y])
-				directions++;
-			if (!visited[x][y + 1])
-				directions++;
-			if (!visited[x + 1][y])
-				directions++;
-
-			return directions;
-
-		}
-		if (y == gridHeight - 1) {
-			// bottom row
-			directions = 0;
-			if (!visited[x - 1][y])
-				directions++;
-			if (!visited[x][y - 1])
-				directions++;
-			if (!visited[x + 1][y])
-				directions++;
-
-			return directions;
-
-		}
-		if (x == gridWidth - 1) {
-			// right row
-			directions = 0;
-			if (!visited[x][y + 1])
-				directions++;
-			if (!visited[x][y - 1])
-				directions++;
-			if (!visited[x - 1][y])
-				directions++;
-
-			return directions;
-
-		}
-
-		// all the rest of the possibilities mean that a cell is adjacent to 4 others
-		directions = 0;
-		if (!visited[x][y + 1])
+		if (y > 0 && !checkVisited(x, y - 1))
 			directions++;
-		if (!visited[x][y - 1])
+		if (x < gridWidth - 1 && !checkVisited(x + 1, y))
 			directions++;
-		if (!visited[x + 1][y])
+		if (y < gridHeight - 1 && !checkVisited(x, y + 1))
 			directions++;
-		if (!visited[x - 1][y])
+		if (x > 0 && !checkVisited(x - 1, y))
 			directions++;
 		return directions;
 	}
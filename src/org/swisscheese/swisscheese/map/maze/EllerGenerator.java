@@ -0,0 +1,277 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.map.maze;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.swisscheese.swisscheese.annotations.NotThreadSafe;
+
+/**
+ * A streaming maze generator that uses Eller's algorithm. The maze is generated
+ * one row at a time, and every row is handed to a {@link RowSink} as soon as it
+ * is complete. Only the current row is kept in memory, so the memory used
+ * depends only on the width of the maze (not the height), and mazes larger than
+ * the available memory can be written to disk.
+ * <p>
+ * Every cell of the current row belongs to a set of cells that are connected
+ * (through this row or the rows above). For each row, the algorithm:
+ * <ol>
+ * <li>puts every cell that is not connected to the row above into a new
+ * set;</li>
+ * <li>randomly breaks walls between adjacent cells of different sets, merging
+ * the sets;</li>
+ * <li>randomly breaks south walls, at least one for each set, so that no set
+ * is cut off from the rest of the maze.</li>
+ * </ol>
+ * On the last row, all walls between different sets are broken. The result is
+ * a perfect maze (with exactly one path between any two cells).
+ * <p>
+ * The entry of the maze is in the north wall of the first row, and the exit in
+ * the south wall of the last row. All random choices are made by a
+ * {@link SplittableRandom} created from a seed, so the same seed always
+ * generates the same maze.
+ * 
+ * @author Alex Kalinins
+ * @since 2019-02-09
+ * @since v1.0
+ * @version v1.0
+ * @see <a href="http://www.neocomputer.org/projects/eller.html">Eller's
+ *      Algorithm</a>
+ */
+@NotThreadSafe
+public final class EllerGenerator {
+	private final int width;
+	private final long height;
+	private final SplittableRandom rand;
+
+	/** The cells of the current row (handed to the sink) */
+	private final byte[] row;
+	/** The set of each cell of the current row (-1 if not in a set yet) */
+	private final int[] set;
+	/** Union-find parents of the sets, for merging sets within a row */
+	private final int[] parent;
+	/** If a set id is used by a cell of the current row */
+	private final boolean[] used;
+	/** If a set has a cell with a broken south wall */
+	private final boolean[] down;
+	/** Number of cells of each set in the current row */
+	private final int[] count;
+	/** Index of the random cell of each set (counted down to 0) */
+	private final int[] chosen;
+	/** Random bits that were not used yet */
+	private long bits;
+	/** Number of random bits that were not used yet */
+	private int bitCount = 0;
+
+	/**
+	 * Private constructor for EllerGenerator.
+	 * 
+	 * @param width  the width of the maze (in cells).
+	 * @param height the height of the maze (in cells).
+	 * @param seed   the seed of the random choices.
+	 */
+	private EllerGenerator(int width, long height, long seed) {
+		this.width = width;
+		this.height = height;
+		rand = new SplittableRandom(seed);
+		row = new byte[width];
+		set = new int[width];
+		parent = new int[width];
+		used = new boolean[width];
+		down = new boolean[width];
+		count = new int[width];
+		chosen = new int[width];
+		Arrays.fill(set, -1);
+	}
+
+	/**
+	 * Generates a maze and hands it to <code>sink</code> row by row.
+	 * 
+	 * @param width  the width of the maze (in cells).
+	 * @param height the height of the maze (in cells).
+	 * @param seed   the seed of the maze. The same seed and size always generate
+	 *               the same maze.
+	 * @param sink   the sink that accepts the rows.
+	 * @throws IOException              if the sink cannot accept a row.
+	 * @throws IllegalArgumentException if the width or the height is less than 1.
+	 */
+	public static void generate(int width, long height, long seed, RowSink sink)
+			throws IOException, IllegalArgumentException {
+		if (width < 1 || height < 1) {
+			throw new IllegalArgumentException("The width and the height of the maze must be at least 1");
+		}
+		new EllerGenerator(width, height, seed).generate(sink);
+	}
+
+	/**
+	 * Generates all the rows of the maze.
+	 * 
+	 * @param sink the sink that accepts the rows.
+	 * @throws IOException if the sink cannot accept a row.
+	 */
+	private void generate(RowSink sink) throws IOException {
+		row[rand.nextInt(width)] |= CellGrid.NORTH; // entry
+
+		for (long y = 0; y < height; y++) {
+			final boolean last = y == height - 1;
+
+			assignSets();
+			joinRow(last);
+			if (last) {
+				row[rand.nextInt(width)] |= CellGrid.SOUTH; // exit
+			} else {
+				joinDown();
+			}
+
+			sink.acceptRow(y, row);
+
+			// the next row is only connected through the broken south walls
+			for (int x = 0; x < width; x++) {
+				if ((row[x] & CellGrid.SOUTH) != 0) {
+					row[x] = CellGrid.NORTH;
+				} else {
+					row[x] = 0;
+					set[x] = -1;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Puts every cell that is not in a set into a new set. The set ids are always
+	 * between 0 and <code>width</code>.
+	 */
+	private void assignSets() {
+		Arrays.fill(used, false);
+		for (int x = 0; x < width; x++) {
+			if (set[x] >= 0) {
+				used[set[x]] = true;
+			}
+		}
+
+		int free = 0;
+		for (int x = 0; x < width; x++) {
+			if (set[x] < 0) {
+				while (used[free]) {
+					free++;
+				}
+				set[x] = free;
+				used[free] = true;
+			}
+		}
+
+		for (int i = 0; i < width; i++) {
+			parent[i] = i;
+		}
+	}
+
+	/**
+	 * Randomly breaks the walls between adjacent cells of different sets, and
+	 * merges their sets.
+	 * 
+	 * @param last true if this is the last row (all walls between different sets
+	 *             are broken).
+	 */
+	private void joinRow(boolean last) {
+		int a;
+		int b;
+		for (int x = 0; x < width - 1; x++) {
+			a = find(set[x]);
+			b = find(set[x + 1]);
+			if (a != b && (last || nextBit())) {
+				parent[b] = a;
+				row[x] |= CellGrid.EAST;
+				row[x + 1] |= CellGrid.WEST;
+			}
+		}
+
+		for (int x = 0; x < width; x++) {
+			set[x] = find(set[x]);
+		}
+	}
+
+	/**
+	 * Randomly breaks south walls of the row, with at least one broken wall for
+	 * every set.
+	 */
+	private void joinDown() {
+		for (int x = 0; x < width; x++) {
+			down[set[x]] = false;
+			count[set[x]] = 0;
+		}
+
+		int s;
+		for (int x = 0; x < width; x++) {
+			s = set[x];
+			count[s]++;
+			if (nextBit()) {
+				row[x] |= CellGrid.SOUTH;
+				down[s] = true;
+			}
+		}
+
+		// a random cell of every set without a broken south wall is picked, by
+		// counting down a random index over the cells of the set.
+		for (int x = 0; x < width; x++) {
+			s = set[x];
+			if (!down[s] && count[s] > 0) {
+				chosen[s] = rand.nextInt(count[s]);
+				count[s] = 0;
+			}
+		}
+		for (int x = 0; x < width; x++) {
+			s = set[x];
+			if (!down[s] && chosen[s]-- == 0) {
+				row[x] |= CellGrid.SOUTH;
+				down[s] = true;
+			}
+		}
+	}
+
+	/**
+	 * Returns a random boolean. The booleans are taken from the bits of a single
+	 * random {@code long}, 64 at a time.
+	 * 
+	 * @return a random boolean.
+	 */
+	private boolean nextBit() {
+		if (bitCount == 0) {
+			bits = rand.nextLong();
+			bitCount = Long.SIZE;
+		}
+		bitCount--;
+		final boolean bit = (bits & 1) != 0;
+		bits >>>= 1;
+		return bit;
+	}
+
+	/**
+	 * Finds the root of a set (with path halving).
+	 * 
+	 * @param s the set.
+	 * @return the root set of <code>s</code>.
+	 */
+	private int find(int s) {
+		while (parent[s] != s) {
+			parent[s] = parent[parent[s]];
+			s = parent[s];
+		}
+		return s;
+	}
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.map.maze;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.swisscheese.swisscheese.annotations.ThreadSafe;
+
+/**
+ * Follows the generation of a maze: reports the progress to a
+ * {@link ProgressListener}, and stops the generation if it takes longer than a
+ * time budget (or if it is cancelled).
+ * <p>
+ * The generators call {@link #advance(int)} with the number of cells that were
+ * added to the maze, once for many cells (so the monitor does not slow down the
+ * generation). The generation is stopped by throwing a
+ * {@link CancellationException} from {@link #advance(int)}, so a generator does
+ * not have to check anything itself. A generator reports the cells that are
+ * left over (fewer than in one report) when it is done, so every cell of the
+ * maze is reported.
+ * 
+ * @author Alex Kalinins
+ * @since 2019-02-16
+ * @since v1.0
+ * @version v1.0
+ * @see MazeAlgorithm#generateMaze(int, long, GenerationMonitor)
+ */
+@ThreadSafe
+public final class GenerationMonitor {
+	/** A monitor that reports nothing and never stops the generation. */
+	public static final GenerationMonitor NONE = new GenerationMonitor(null, 0);
+
+	private final ProgressListener listener;
+	private final long budgetNanos;
+	/** Number of cells of the maze that were generated */
+	private final AtomicLong done = new AtomicLong();
+	private volatile long total = 1;
+	/** The time (from {@link System#nanoTime()}) when the budget is used up */
+	private volatile long deadline;
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Constructor for GenerationMonitor.
+	 * 
+	 * @param listener     the listener of the progress (<code>null</code> for no
+	 *                     listener).
+	 * @param budgetMillis the longest the maze can take to generate, in
+	 *                     milliseconds (0 for no limit).
+	 */
+	public GenerationMonitor(ProgressListener listener, long budgetMillis) {
+		this.listener = listener;
+		budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+	}
+
+	/**
+	 * Starts following the generation of a maze. The time budget starts now.
+	 * 
+	 * @param cells the number of cells of the maze.
+	 */
+	void start(long cells) {
+		if (this == NONE) {
+			return;
+		}
+		total = Math.max(cells, 1);
+		done.set(0);
+		deadline = System.nanoTime() + budgetNanos;
+		report(0f);
+	}
+
+	/**
+	 * Called by a generator when cells were added to the maze. Can be called by
+	 * many threads at once.
+	 * 
+	 * @param cells the number of cells that were added.
+	 * @throws CancellationException if the generation is cancelled or took longer
+	 *                               than the time budget.
+	 */
+	void advance(int cells) throws CancellationException {
+		if (this == NONE) {
+			return;
+		}
+		checkBudget();
+		report(Math.min(1f, (float) done.addAndGet(cells) / total));
+	}
+
+	/**
+	 * Stops the generation if it is cancelled or took longer than the time
+	 * budget. Called between the steps that build the map after the maze is
+	 * carved, which do not report any progress.
+	 * 
+	 * @throws CancellationException if the generation is cancelled or took longer
+	 *                               than the time budget.
+	 */
+	public void checkBudget() throws CancellationException {
+		if (this == NONE) {
+			return;
+		}
+		if (cancelled) {
+			throw new CancellationException("The generation of the maze was cancelled");
+		}
+		if (budgetNanos > 0 && System.nanoTime() - deadline > 0) {
+			throw new CancellationException("The maze took longer than "
+					+ TimeUnit.NANOSECONDS.toMillis(budgetNanos) + " ms to generate");
+		}
+	}
+
+	/**
+	 * Called when the whole map is ready. Reports that the generation is
+	 * complete.
+	 */
+	public void finish() {
+		if (this != NONE) {
+			report(1f);
+		}
+	}
+
+	/**
+	 * Cancels the generation. The generator stops the next time it reports its
+	 * progress.
+	 */
+	public void cancel() {
+		if (this != NONE) {
+			cancelled = true;
+		}
+	}
+
+	/**
+	 * @return the part of the maze that is generated (from 0 to 1).
+	 */
+	public float getProgress() {
+		return Math.min(1f, (float) done.get() / total);
+	}
+
+	private void report(float progress) {
+		if (listener != null) {
+			listener.progress(progress);
+		}
+	}
+}
@@ -16,14 +16,9 @@
  */
 package org.swisscheese.swisscheese.map.maze;
 
-import java.security.SecureRandom;
-import java.util.ArrayDeque;
-import java.util.Arrays;
-import java.util.Deque;
-import java.util.Random;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.SplittableRandom;
 
+import org.swisscheese.swisscheese.annotations.ThreadSafe;
 import org.swisscheese.swisscheese.map.maze.CellGrid.Direction;
 import org.swisscheese.swisscheese.math.GeomPoint2D;
 
@@ -41,9 +36,16 @@ import org.swisscheese.swisscheese.math.GeomPoint2D;
  * creating a branch in the maze. The algorithm continues until all maze cells
  * are marked as visited.
  * <p>
- * This class uses a SecureRandom to create truly random puzzles. While
- * SecureRandom can significantly reduce performance, it is ran only once and
- * will make a once-in-a-lifetime maze.
+ * The path is kept on an explicit {@code int} stack of cell indices (instead of
+ * recursion), so very large mazes cannot overflow the call stack, and no
+ * objects are created for each cell.
+ * <p>
+ * All random choices are made by a {@link SplittableRandom} created from a
+ * seed, so the same seed always generates the same maze.
+ * <p>
+ * Every call of {@link #generateMaze(int, long)} uses its own
+ * {@code Generator} instance and {@link CellGrid}, so mazes can be generated by
+ * many threads at once.
  * 
  * @author Alex Kalinins
  * @since v0.1
@@ -52,191 +54,144 @@ import org.swisscheese.swisscheese.math.GeomPoint2D;
  * @see <a href="https://en.wikipedia.org/wiki/Depth-first_search"> Randomized
  *      Depth-First Search</a>
  */
+@ThreadSafe
 public class Generator {
+	private static final Direction[] DIRECTIONS = Direction.values();
 	private final int size; // size of maze size*size
-	private Deque<Direction> log = new ArrayDeque<Direction>();
-	private CellGrid grid;
-	private Random rand = new SecureRandom();
-	private GeomPoint2D<Integer> startingCell = new GeomPoint2D<>();
-	private GeomPoint2D<Integer> currentCell = new GeomPoint2D<>();
-	private static GeomPoint2D<Integer> exit = new GeomPoint2D<>();
-	private static GeomPoint2D<Integer> entry = new GeomPoint2D<>();
-	private static int[][] maze;
-	public static Lock lock = new ReentrantLock();
+	private final CellGrid grid;
+	private final SplittableRandom rand;
+	private final GenerationMonitor monitor;
 
 	/**
 	 * Private constructor for Generator
 	 * 
-	 * @param size size of the CellGrid (dimensions: size*size). <b>NOTE:</b> the
-	 *             size is only of the CellGrid, and NOT the final map. The size of
-	 *             the map will be (size*size+1).
+	 * @param size    size of the CellGrid (dimensions: size*size). <b>NOTE:</b> the
+	 *                size is only of the CellGrid, and NOT the final map. The size of
+	 *                the map will be (size*size+1).
+	 * @param seed    the seed of the random choices.
+	 * @param monitor the monitor of the generation.
 	 */
-	private Generator(int size) {
+	private Generator(int size, long seed, GenerationMonitor monitor) {
 		this.size = size;
+		rand = new SplittableRandom(seed);
 		grid = CellGrid.newCellGrid(size, size);
-		generate();
-		maze = grid.gridTo2DArray();
-		createRealEntryAndExit(maze);
-
-		maze = wrapMaze(maze);
-		entry.add(1);
-		exit.add(1);
+		this.monitor = monitor;
 	}
 
 	/**
-	 * Wraps {@code maze} in a wall. This is done to prevent the rays of the
-	 * ray-casting algorithm from exiting out out the map (which causes
-	 * {@code ArrayIndexOutOfBoundsException} to occur.
-	 * <p>
-	 * After this method wraps the maze with a wall, 1 must be added to x and y
-	 * values of the entry and exit point of the maze, since they are shifted.
+	 * Generates a new maze.
 	 * 
-	 * @param maze the maze that is being wrapped.
-	 * @return the wrapped {@code maze} array.
+	 * @param size size of the CellGrid (dimensions: size*size). <b>NOTE:</b> the
+	 *             size is only of the CellGrid, and NOT the final map. The size of
+	 *             the map will be (size*2+3).
+	 * @param seed the seed of the maze. The same seed and size always generate the
+	 *             same maze.
+	 * @return the newly generated {@link Maze}.
 	 */
-	private int[][] wrapMaze(int[][] maze) {
-		int[][] newMaze = new int[maze.length + 2][maze.length + 2];
-
-		// array for top and bottom wall
-		int[] topLine = new int[maze.length];
-		Arrays.fill(topLine, 1);
-
-		// loading top wall
-		newMaze[0][0] = 1;
-		System.arraycopy(topLine, 0, newMaze[0], 1, maze.length);
-		newMaze[0][newMaze.length - 1] = 1;
-
-		// loading bottom wall
-		newMaze[newMaze.length - 1][0] = 1;
-		System.arraycopy(topLine, 0, newMaze[newMaze.length - 1], 1, maze.length);
-		newMaze[newMaze.length - 1][newMaze.length - 1] = 1;
-
-		// loading the rest
-		for (int i = 1; i < newMaze.length - 1; i++) {
-			// creating left and right wall
-			newMaze[i][0] = 1;
-			newMaze[i][newMaze.length - 1] = 1;
-
-			// copying array from maze to newMaze
-			System.arraycopy(maze[i-1], 0, newMaze[i], 1, maze.length);
-		}
-
-		return newMaze;
+	public static Maze generateMaze(int size, long seed) {
+		return generateMaze(size, seed, GenerationMonitor.NONE);
 	}
 
 	/**
-	 * This method creates a new instance of Generator (which generates the maze)
-	 * and then calls CellGrid to return a 2D Integer array.
-	 * 
-	 * @param size size of the CellGrid (dimensions: size*size). <b>NOTE:</b> the
-	 *             size is only of the CellGrid, and NOT the final map. The size of
-	 * @return the newly generated maze map as a 2D Integer array.
+	 * Generates a new maze, and reports the progress to <code>monitor</code>.
+	 *
+	 * @param size    size of the CellGrid (dimensions: size*size). The size of the
+	 *                map will be (size*2+3).
+	 * @param seed    the seed of the maze.
+	 * @param monitor the monitor of the generation (started by
+	 *                {@link MazeAlgorithm}).
+	 * @return the newly generated {@link Maze}.
 	 */
-	public static int[][] generateMaze(int size) {
-		lock.lock();
-		new Generator(size);
-		lock.unlock();
-		return Generator.maze;
+	static Maze generateMaze(int size, long seed, GenerationMonitor monitor) {
+		return new Generator(size, seed, monitor).generate(seed);
 	}
 
 	/**
 	 * Private method that generates the maze. Uses the CellGrid for the cell grid
 	 * and follows a variant of the Randomized Depth-first search algorithm.
 	 * 
+	 * @param seed the seed of the maze (recorded in the result).
+	 * @return the generated {@link Maze}.
 	 * @see CellGrid
 	 * @see <a href="https://en.wikipedia.org/wiki/Depth-first_search"> Randomized
 	 *      Depth-First Search</a>
 	 */
-	private void generate() {
-		int r = rand.nextInt(size);
-		startingCell.setLocation(Direction.NORTH.makeExit(r));
-		currentCell.setLocation(startingCell);
-		entry.setLocation(startingCell);
-		Direction thisDirection = null;
+	private Maze generate(long seed) {
+		// the path from the starting cell, as cell indices (x + y * size)
+		final int[] stack = new int[size * size];
+		final Direction[] available = new Direction[DIRECTIONS.length];
+		int top = 0;
+
+		final GeomPoint2D<Integer> entry = Direction.NORTH.makeExit(grid, rand.nextInt(size));
+		grid.markVisited(entry.getX(), entry.getY());
+		stack[top++] = entry.getX();
+
+		int x;
+		int y;
+		int count;
+		int carved = 1;
+		Direction direction;
+		while (top > 0) {
+			x = stack[top - 1] % size;
+			y = stack[top - 1] / size;
+
+			count = 0;
+			for (Direction d : DIRECTIONS) {
+				if (d.directionAvailable(grid, x, y)) {
+					available[count++] = d;
+				}
+			}
 
-		int counter = size * size;
-		int directions;
+			if (count == 0) {
+				// dead-end: back-tracking
+				top--;
+				continue;
+			}
 
-		// makes a maze with only one entrance.
-		while (counter != 0) {
-			thisDirection = null;
-			directions = grid.checkRemainingPaths(currentCell);
-			if (directions > 0) {
-				if (directions == 1) {
-					// if only one direction avail, for loop finds the direction
-					for (int i = 0; i < 4; i++) {
-						if ((thisDirection = intToDirection(i)).directionAvailable(currentCell)) {
-							break;
-						}
-					}
-				} else {
-					thisDirection = randomDirection(currentCell); // stuck here
-				}
-				appendLog(thisDirection);
-				currentCell.setLocation(thisDirection.move(currentCell));
-				counter--;
-			} else {
-				backTrack();
+			direction = (count == 1) ? available[0] : available[rand.nextInt(count)];
+			direction.move(grid, x, y);
+			stack[top++] = (x + direction.dx()) + (y + direction.dy()) * size;
+			if (++carved == size) {
+				monitor.advance(carved);
+				carved = 0;
 			}
 		}
 
-		exit = intToDirection(rand.nextInt(3) + 1).makeExit(rand.nextInt(size - 1));
+		monitor.advance(carved); // the cells left since the last report
+
+		final GeomPoint2D<Integer> exit = intToDirection(rand.nextInt(3) + 1).makeExit(grid,
+				rand.nextInt(size - 1));
+		return new Maze(grid, realEntry(entry), realExit(exit, size), seed);
 	}
 
 	/**
-	 * Sets the location of the real entry and exit {@code GeomPoint2D} from the
-	 * maze array, after it has been converted from {@code CellGrid} object by
-	 * {@link org.swisscheese.swisscheese.map.maze.CellGrid#gridTo2DArray()}
+	 * Converts the entry cell into the location of the entry on the map array
+	 * (which is wrapped in a wall).
 	 * 
-	 * @param maze final maze
+	 * @param entry entry cell
+	 * @return the entry point on the map.
 	 * @since v0.2
 	 * @since 2018-12-19
 	 */
-	private void createRealEntryAndExit(int[][] maze) {
-		entry.setLocation(entry.getX() * 2 + 1, 0);
-		if (exit.getY() != size - 1) {
-			exit.setLocation((exit.getX() == 0) ? 0 : (exit.getX() * 2 + 1), exit.getY() * 2 + 1);
-		} else {
-			exit.setLocation(exit.getX() * 2 + 1, maze.length - 1);
-		}
-	}
-
-	/**
-	 * Recursively back-tracks from currentCell until reaches a first location that
-	 * touches an unvisited cell.
-	 */
-	private void backTrack() {
-		currentCell = log.removeFirst().antiDirection().go(currentCell);
-		if (grid.checkRemainingPaths(currentCell) == 0) {
-			backTrack();
-		}
-	}
-
-	/**
-	 * randomDirection overloaded to work with {@link GeomPoint2D}.
-	 * 
-	 * @param p {@link GeomPoint2D} of the current cell
-	 * @return a random direction
-	 * @see Generator#randomDirection(int, int)
-	 */
-	private Direction randomDirection(GeomPoint2D<Integer> p) {
-		return randomDirection((int) p.getX(), (int) p.getY());
+	static GeomPoint2D<Integer> realEntry(GeomPoint2D<Integer> entry) {
+		return new GeomPoint2D<>(entry.getX() * 2 + 2, 1);
 	}
 
 	/**
-	 * Generates am approved random Direction using SecureRandom
+	 * Converts the exit cell into the location of the exit on the map array
+	 * (which is wrapped in a wall).
 	 * 
-	 * @param x x-location of the current cell
-	 * @param x y-location of the current cell
-	 * @return a random Direction
+	 * @param exit exit cell
+	 * @param size size of the CellGrid of the maze
+	 * @return the exit point on the map.
+	 * @since v0.2
+	 * @since 2018-12-19
 	 */
-	private Direction randomDirection(int x, int y) {
-		int r;
-		do {
-			r = rand.nextInt(4);
-		} while (!(intToDirection(r).directionAvailable(x, y)));
-
-		return intToDirection(r);
+	static GeomPoint2D<Integer> realExit(GeomPoint2D<Integer> exit, int size) {
+		if (exit.getY() != size - 1) {
+			return new GeomPoint2D<>(((exit.getX() == 0) ? 0 : (exit.getX() * 2 + 1)) + 1, exit.getY() * 2 + 2);
+		}
+		return new GeomPoint2D<>(exit.getX() * 2 + 2, size * 2 + 1);
 	}
 
 	/**
@@ -249,7 +204,7 @@ public class Generator {
 	 * @param r a number to pick direction
 	 * @return a Direction corresponding to r
 	 */
-	private Direction intToDirection(int r) {
+	static Direction intToDirection(int r) {
 		if (r == 0)
 			return Direction.NORTH;
 		else if (r == 1)
@@ -258,38 +213,4 @@ public class Generator {
 			return Direction.SOUTH;
 		return Direction.WEST;
 	}
-
-	/**
-	 * Adds an Direction entry to the log used for back-tracking. The log is a list
-	 * of directions the algorithm took, in order to back-track, algorithm must go
-	 * in the opposite direction
-	 * 
-	 * @see Direction#antiDirection()
-	 * @see Generator#backTrack()
-	 * @param d Direction to be appended to the log
-	 */
-	private void appendLog(Direction d) {
-		log.addFirst(d);
-	}
-
-	/**
-	 * Getter of the exit point of the maze. The exit point is a random location on
-	 * any side (Direction) other than NORTH (starting side). Where the player
-	 * should end the game.
-	 * 
-	 * @return exit point of the maze.
-	 */
-	public static GeomPoint2D<Integer> getExit() {
-		return exit;
-	}
-
-	/**
-	 * Getter of the entry point of the maze (where the algorithm started). Where
-	 * the player should start the game.
-	 * 
-	 * @return entry point.
-	 */
-	public static GeomPoint2D<Integer> getEntry() {
-		return entry;
-	}
 }
@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.map.maze;
+
+import java.util.SplittableRandom;
+
+import org.swisscheese.swisscheese.annotations.ThreadSafe;
+import org.swisscheese.swisscheese.map.maze.CellGrid.Direction;
+import org.swisscheese.swisscheese.math.GeomPoint2D;
+
+/**
+ * Generates a maze through Randomized Kruskal's algorithm.
+ * <p>
+ * Every cell starts in its own set. The walls between adjacent cells are
+ * visited in a random order, and a wall is broken if the cells on either side
+ * of it are in different sets, merging the two sets. When only one set is left,
+ * every cell is connected, and the maze is perfect.
+ * <p>
+ * The sets are a union-find on a single flat {@code int} array: the entry of a
+ * cell is the index of its parent cell, or the negative size of its set if the
+ * cell is the root of the set. Finding the root halves the path, and the
+ * smaller set is always merged into the larger one, so the algorithm runs in
+ * near-linear time.
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-11
+ * @since v1.0
+ * @version v1.0
+ * @see <a href="https://en.wikipedia.org/wiki/Maze_generation_algorithm">Maze
+ *      generation algorithms</a>
+ */
+@ThreadSafe
+public final class KruskalGenerator {
+	private final int size; // size of maze size*size
+	private final CellGrid grid;
+	private final SplittableRandom rand;
+	private final GenerationMonitor monitor;
+
+	/**
+	 * Private constructor for KruskalGenerator
+	 *
+	 * @param size    size of the CellGrid (dimensions: size*size).
+	 * @param seed    the seed of the random choices.
+	 * @param monitor the monitor of the generation.
+	 */
+	private KruskalGenerator(int size, long seed, GenerationMonitor monitor) {
+		this.size = size;
+		rand = new SplittableRandom(seed);
+		grid = CellGrid.newCellGrid(size, size);
+		this.monitor = monitor;
+	}
+
+	/**
+	 * Generates a new maze.
+	 *
+	 * @param size size of the CellGrid (dimensions: size*size). The size of the
+	 *             map will be (size*2+3).
+	 * @param seed the seed of the maze. The same seed and size always generate the
+	 *             same maze.
+	 * @return the newly generated {@link Maze}.
+	 */
+	public static Maze generateMaze(int size, long seed) {
+		return generateMaze(size, seed, GenerationMonitor.NONE);
+	}
+
+	/**
+	 * Generates a new maze, and reports the progress to <code>monitor</code>.
+	 *
+	 * @param size    size of the CellGrid (dimensions: size*size). The size of the
+	 *                map will be (size*2+3).
+	 * @param seed    the seed of the maze.
+	 * @param monitor the monitor of the generation (started by
+	 *                {@link MazeAlgorithm}).
+	 * @return the newly generated {@link Maze}.
+	 */
+	static Maze generateMaze(int size, long seed, GenerationMonitor monitor) {
+		return new KruskalGenerator(size, seed, monitor).generate(seed);
+	}
+
+	/**
+	 * Private method that generates the maze.
+	 *
+	 * @param seed the seed of the maze (recorded in the result).
+	 * @return the generated {@link Maze}.
+	 */
+	private Maze generate(long seed) {
+		final GeomPoint2D<Integer> entry = Direction.NORTH.makeExit(grid, rand.nextInt(size));
+
+		// every wall between two cells: 2 * cell to the east, 2 * cell + 1 to the south
+		final int[] walls = new int[2 * size * (size - 1)];
+		int count = 0;
+		for (int cell = 0; cell < size * size; cell++) {
+			if (cell % size != size - 1) {
+				walls[count++] = cell << 1;
+			}
+			if (cell / size != size - 1) {
+				walls[count++] = (cell << 1) | 1;
+			}
+		}
+
+		final int[] parent = new int[size * size];
+		for (int i = 0; i < parent.length; i++) {
+			parent[i] = -1;
+		}
+
+		int joined = 0;
+		int j;
+		int wall;
+		int cell;
+		int a;
+		int b;
+		// the walls are shuffled while they are visited (Fisher-Yates), until all
+		// cells are in one set.
+		for (int i = 0; i < count && joined < parent.length - 1; i++) {
+			j = i + rand.nextInt(count - i);
+			wall = walls[j];
+			walls[j] = walls[i];
+			walls[i] = wall;
+
+			cell = wall >> 1;
+			final boolean east = (wall & 1) == 0;
+			a = find(parent, cell);
+			b = find(parent, east ? cell + 1 : cell + size);
+			if (a == b) {
+				continue;
+			}
+			if (parent[a] > parent[b]) {
+				// a is the smaller set
+				final int tmp = a;
+				a = b;
+				b = tmp;
+			}
+			parent[a] += parent[b];
+			parent[b] = a;
+			if (++joined % size == 0) {
+				monitor.advance(size);
+			}
+
+			(east ? Direction.EAST : Direction.SOUTH).move(grid, cell % size, cell / size);
+		}
+
+		// the cells left since the last report (the first cell of the maze was
+		// never joined)
+		monitor.advance(parent.length - joined / size * size);
+
+		final GeomPoint2D<Integer> exit = Generator.intToDirection(rand.nextInt(3) + 1).makeExit(grid,
+				rand.nextInt(size - 1));
+		return new Maze(grid, Generator.realEntry(entry), Generator.realExit(exit, size), seed);
+	}
+
+	/**
+	 * Finds the root of the set of a cell (with path halving).
+	 *
+	 * @param parent the parents of the cells (negative for roots).
+	 * @param cell   the cell.
+	 * @return the root cell of the set of <code>cell</code>.
+	 */
+	private static int find(int[] parent, int cell) {
+		while (parent[cell] >= 0) {
+			if (parent[parent[cell]] >= 0) {
+				parent[cell] = parent[parent[cell]];
+			}
+			cell = parent[cell];
+		}
+		return cell;
+	}
+}
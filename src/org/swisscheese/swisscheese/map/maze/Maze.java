@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.map.maze;
+
+import org.swisscheese.swisscheese.annotations.Immutable;
+import org.swisscheese.swisscheese.math.GeomPoint2D;
+
+/**
+ * The result of a maze generation: the generated {@link CellGrid}, the entry
+ * and exit points and the seed from which it was generated.
+ * <p>
+ * A {@code Maze} does not change after it is generated, so it can be shared
+ * between threads. {@link #toArray()} creates a new map array on every call,
+ * which belongs to the caller.
+ * 
+ * @author Alex Kalinins
+ * @since 2019-02-08
+ * @since v1.0
+ * @version v1.0
+ */
+@Immutable
+public final class Maze {
+	/** The generated grid (never modified after generation) */
+	private final CellGrid grid;
+	private final GeomPoint2D<Integer> entry;
+	private final GeomPoint2D<Integer> exit;
+	private final long seed;
+
+	/**
+	 * Constructor. Used by the generators.
+	 * 
+	 * @param grid  the generated grid.
+	 * @param entry the entry point (on the map array).
+	 * @param exit  the exit point (on the map array).
+	 * @param seed  the seed from which the maze was generated.
+	 */
+	Maze(CellGrid grid, GeomPoint2D<Integer> entry, GeomPoint2D<Integer> exit, long seed) {
+		this.grid = grid;
+		this.entry = new GeomPoint2D<>(entry);
+		this.exit = new GeomPoint2D<>(exit);
+		this.seed = seed;
+	}
+
+	/**
+	 * Converts the maze into a map array, wrapped in a wall. The wall prevents the
+	 * rays of the ray-casting algorithm from exiting out of the map (which causes
+	 * {@code ArrayIndexOutOfBoundsException} to occur). If a wall is to be drawn
+	 * in a location, the value is 1, otherwise 0.
+	 * 
+	 * @return a new map array of the maze.
+	 * @see CellGrid#gridTo2DArray(int)
+	 */
+	public int[][] toArray() {
+		return grid.gridTo2DArray(1);
+	}
+
+	/**
+	 * Getter of the size of the map array (in walls, not cells).
+	 * 
+	 * @return the size of the map array.
+	 */
+	public int getMapSize() {
+		return grid.getGridWidth() * 2 + 3;
+	}
+
+	/**
+	 * Getter of the entry point of the maze (where the algorithm started). Where
+	 * the player should start the game.
+	 * 
+	 * @return entry point.
+	 */
+	public GeomPoint2D<Integer> getEntry() {
+		return new GeomPoint2D<>(entry);
+	}
+
+	/**
+	 * Getter of the exit point of the maze. The exit point is a random location on
+	 * any side (Direction) other than NORTH (starting side). Where the player
+	 * should end the game.
+	 * 
+	 * @return exit point of the maze.
+	 */
+	public GeomPoint2D<Integer> getExit() {
+		return new GeomPoint2D<>(exit);
+	}
+
+	/**
+	 * @return the seed from which the maze was generated.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+}
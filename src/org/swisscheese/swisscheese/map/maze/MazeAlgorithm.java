@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.map.maze;
+
+import org.swisscheese.swisscheese.annotations.ThreadSafe;
+
+/**
+ * The algorithms that can generate a maze. Every algorithm generates a perfect
+ * maze (with exactly one path between any two cells), but the mazes look
+ * different:
+ * <ul>
+ * <li>{@link #BACKTRACKER} and {@link #PARALLEL_BACKTRACKER} make long, winding
+ * corridors with few branches.</li>
+ * <li>{@link #KRUSKAL} and {@link #PRIM} make many short dead-ends.</li>
+ * <li>{@link #WILSON} picks a maze uniformly from all possible mazes.</li>
+ * </ul>
+ * The same algorithm, size and seed always generate the same maze.
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-11
+ * @since v1.0
+ * @version v1.0
+ */
+@ThreadSafe
+public enum MazeAlgorithm {
+	/** Randomized Depth-First Search ({@link Generator}). */
+	BACKTRACKER {
+		@Override
+		Maze generate(int size, long seed, GenerationMonitor monitor) {
+			return Generator.generateMaze(size, seed, monitor);
+		}
+	},
+	/** Randomized Depth-First Search on many threads ({@link ParallelGenerator}). */
+	PARALLEL_BACKTRACKER {
+		@Override
+		Maze generate(int size, long seed, GenerationMonitor monitor) {
+			return ParallelGenerator.generateMaze(size, seed, monitor);
+		}
+	},
+	/** Randomized Kruskal's algorithm ({@link KruskalGenerator}). */
+	KRUSKAL {
+		@Override
+		Maze generate(int size, long seed, GenerationMonitor monitor) {
+			return KruskalGenerator.generateMaze(size, seed, monitor);
+		}
+	},
+	/** Wilson's algorithm ({@link WilsonGenerator}). */
+	WILSON {
+		@Override
+		Maze generate(int size, long seed, GenerationMonitor monitor) {
+			return WilsonGenerator.generateMaze(size, seed, monitor);
+		}
+	},
+	/** Randomized Prim's algorithm ({@link PrimGenerator}). */
+	PRIM {
+		@Override
+		Maze generate(int size, long seed, GenerationMonitor monitor) {
+			return PrimGenerator.generateMaze(size, seed, monitor);
+		}
+	};
+
+	/**
+	 * Generates a new maze with this algorithm.
+	 *
+	 * @param size size of the CellGrid (dimensions: size*size). The size of the
+	 *             map will be (size*2+3).
+	 * @param seed the seed of the maze.
+	 * @return the newly generated {@link Maze}.
+	 */
+	public final Maze generateMaze(int size, long seed) {
+		return generate(size, seed, GenerationMonitor.NONE);
+	}
+
+	/**
+	 * Generates a new maze with this algorithm, and reports the progress to
+	 * <code>monitor</code>.
+	 *
+	 * @param size    size of the CellGrid (dimensions: size*size). The size of the
+	 *                map will be (size*2+3).
+	 * @param seed    the seed of the maze.
+	 * @param monitor the monitor of the generation.
+	 * @return the newly generated {@link Maze}.
+	 * @throws java.util.concurrent.CancellationException if the monitor stopped
+	 *                                                    the generation.
+	 */
+	public final Maze generateMaze(int size, long seed, GenerationMonitor monitor) {
+		monitor.start((long) size * size);
+		return generate(size, seed, monitor);
+	}
+
+	/**
+	 * Generates a new maze with the generator of this algorithm.
+	 *
+	 * @param size    size of the CellGrid.
+	 * @param seed    the seed of the maze.
+	 * @param monitor the monitor of the generation.
+	 * @return the newly generated {@link Maze}.
+	 */
+	abstract Maze generate(int size, long seed, GenerationMonitor monitor);
+}
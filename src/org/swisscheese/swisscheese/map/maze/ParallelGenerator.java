@@ -0,0 +1,303 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.map.maze;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.swisscheese.swisscheese.annotations.ThreadSafe;
+import org.swisscheese.swisscheese.map.maze.CellGrid.Direction;
+import org.swisscheese.swisscheese.math.GeomPoint2D;
+
+/**
+ * A maze generator that carves large mazes on many threads. The
+ * {@link CellGrid} is split into square regions of {@link #REGION_SIZE} cells,
+ * and every region is carved by its own Randomized Depth-First Search (like in
+ * {@link Generator}), on the threads of a {@link ForkJoinPool}. The regions do
+ * not share any cells, so they are carved without any locking.
+ * <p>
+ * Every region is a perfect maze by itself. The regions are then stitched
+ * together by a random spanning tree of the regions (Randomized Kruskal's
+ * algorithm): for every edge of the tree, one random wall on the boundary
+ * between the two regions is broken. So there is exactly one path between any
+ * two cells, and exactly one route from the entry to the exit.
+ * <p>
+ * The layout of the regions and the seed of each region only depend on the
+ * size and the seed of the maze, and not on the number of threads, so the same
+ * seed always generates the same maze.
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-10
+ * @since v1.0
+ * @version v1.0
+ * @see Generator
+ */
+@ThreadSafe
+public final class ParallelGenerator {
+	/** Width and height of a region (in cells) */
+	public static final int REGION_SIZE = 64;
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	private final int size; // size of maze size*size
+	private final CellGrid grid;
+	private final SplittableRandom rand;
+	private final GenerationMonitor monitor;
+	/** Number of regions on each side of the grid */
+	private final int regions;
+	/** The seed of every region */
+	private final long[] regionSeeds;
+
+	/**
+	 * Private constructor for ParallelGenerator
+	 *
+	 * @param size    size of the CellGrid (dimensions: size*size).
+	 * @param seed    the seed of the random choices.
+	 * @param monitor the monitor of the generation.
+	 */
+	private ParallelGenerator(int size, long seed, GenerationMonitor monitor) {
+		this.size = size;
+		rand = new SplittableRandom(seed);
+		grid = CellGrid.newCellGrid(size, size);
+		this.monitor = monitor;
+		regions = (size + REGION_SIZE - 1) / REGION_SIZE;
+		regionSeeds = new long[regions * regions];
+	}
+
+	/**
+	 * Generates a new maze on the threads of the common {@link ForkJoinPool}.
+	 *
+	 * @param size size of the CellGrid (dimensions: size*size). The size of the
+	 *             map will be (size*2+3).
+	 * @param seed the seed of the maze. The same seed and size always generate the
+	 *             same maze.
+	 * @return the newly generated {@link Maze}.
+	 */
+	public static Maze generateMaze(int size, long seed) {
+		return generateMaze(size, seed, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Generates a new maze on the threads of the common {@link ForkJoinPool}, and
+	 * reports the progress to <code>monitor</code> after every region.
+	 *
+	 * @param size    size of the CellGrid (dimensions: size*size). The size of the
+	 *                map will be (size*2+3).
+	 * @param seed    the seed of the maze.
+	 * @param monitor the monitor of the generation (started by
+	 *                {@link MazeAlgorithm}).
+	 * @return the newly generated {@link Maze}.
+	 */
+	static Maze generateMaze(int size, long seed, GenerationMonitor monitor) {
+		return new ParallelGenerator(size, seed, monitor).generate(seed, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Generates a new maze on the threads of <code>pool</code>.
+	 *
+	 * @param size size of the CellGrid (dimensions: size*size). The size of the
+	 *             map will be (size*2+3).
+	 * @param seed the seed of the maze. The same seed and size always generate the
+	 *             same maze.
+	 * @param pool the pool that carves the regions.
+	 * @return the newly generated {@link Maze}.
+	 */
+	public static Maze generateMaze(int size, long seed, ForkJoinPool pool) {
+		return new ParallelGenerator(size, seed, GenerationMonitor.NONE).generate(seed, pool);
+	}
+
+	/**
+	 * Private method that generates the maze.
+	 *
+	 * @param seed the seed of the maze (recorded in the result).
+	 * @param pool the pool that carves the regions.
+	 * @return the generated {@link Maze}.
+	 */
+	private Maze generate(long seed, ForkJoinPool pool) {
+		final GeomPoint2D<Integer> entry = Direction.NORTH.makeExit(grid, rand.nextInt(size));
+
+		// drawn before carving, so the seeds do not depend on the order of the threads
+		for (int i = 0; i < regionSeeds.length; i++) {
+			regionSeeds[i] = rand.nextLong();
+		}
+		pool.invoke(new CarveRegions(this, 0, regionSeeds.length));
+
+		stitchRegions();
+
+		final GeomPoint2D<Integer> exit = Generator.intToDirection(rand.nextInt(3) + 1).makeExit(grid,
+				rand.nextInt(size - 1));
+		return new Maze(grid, Generator.realEntry(entry), Generator.realExit(exit, size), seed);
+	}
+
+	/**
+	 * Carves a region through Randomized Depth-First Search, without leaving the
+	 * region. Called by many threads at once, for different regions.
+	 *
+	 * @param region index of the region (x + y * regions).
+	 * @param stack  the stack of the search, at least as long as a region.
+	 */
+	private void carveRegion(int region, int[] stack) {
+		final SplittableRandom random = new SplittableRandom(regionSeeds[region]);
+		final Direction[] available = new Direction[DIRECTIONS.length];
+		final int x0 = (region % regions) * REGION_SIZE;
+		final int y0 = (region / regions) * REGION_SIZE;
+		final int width = Math.min(REGION_SIZE, size - x0);
+		final int height = Math.min(REGION_SIZE, size - y0);
+
+		// the path from the starting cell, as cell indices in the region (x + y * width)
+		int top = 0;
+		stack[top++] = random.nextInt(width * height);
+		grid.markVisited(x0 + stack[0] % width, y0 + stack[0] / width);
+
+		int x;
+		int y;
+		int nx;
+		int ny;
+		int count;
+		Direction direction;
+		while (top > 0) {
+			x = stack[top - 1] % width;
+			y = stack[top - 1] / width;
+
+			count = 0;
+			for (Direction d : DIRECTIONS) {
+				nx = x + d.dx();
+				ny = y + d.dy();
+				if (nx >= 0 && ny >= 0 && nx < width && ny < height
+						&& !grid.isSet(x0 + nx, y0 + ny, CellGrid.VISITED)) {
+					available[count++] = d;
+				}
+			}
+
+			if (count == 0) {
+				// dead-end: back-tracking
+				top--;
+				continue;
+			}
+
+			direction = (count == 1) ? available[0] : available[random.nextInt(count)];
+			direction.move(grid, x0 + x, y0 + y);
+			stack[top++] = (x + direction.dx()) + (y + direction.dy()) * width;
+		}
+		monitor.advance(width * height);
+	}
+
+	/**
+	 * Connects the carved regions through a random spanning tree of the regions.
+	 * Every region is a node, and every pair of adjacent regions is an edge
+	 * (edge <code>2 * r</code> to the east of region <code>r</code>, and edge
+	 * <code>2 * r + 1</code> to the south). The edges are shuffled, and an edge
+	 * joins two regions if they are not connected yet.
+	 */
+	private void stitchRegions() {
+		final int count = regions * regions;
+		final int[] parent = new int[count];
+		final int[] edges = new int[count * 2];
+		for (int i = 0; i < count; i++) {
+			parent[i] = i;
+		}
+		for (int i = 0; i < edges.length; i++) {
+			edges[i] = i;
+		}
+		// Fisher-Yates shuffle
+		int tmp;
+		int j;
+		for (int i = edges.length - 1; i > 0; i--) {
+			j = rand.nextInt(i + 1);
+			tmp = edges[i];
+			edges[i] = edges[j];
+			edges[j] = tmp;
+		}
+
+		int region;
+		int rx;
+		int ry;
+		int other;
+		int a;
+		int b;
+		for (int edge : edges) {
+			region = edge >> 1;
+			rx = region % regions;
+			ry = region / regions;
+			final boolean east = (edge & 1) == 0;
+			if (east ? rx == regions - 1 : ry == regions - 1) {
+				continue; // no region on that side
+			}
+			other = east ? region + 1 : region + regions;
+			a = find(parent, region);
+			b = find(parent, other);
+			if (a == b) {
+				continue;
+			}
+			parent[b] = a;
+
+			if (east) {
+				final int y0 = ry * REGION_SIZE;
+				Direction.EAST.move(grid, (rx + 1) * REGION_SIZE - 1,
+						y0 + rand.nextInt(Math.min(REGION_SIZE, size - y0)));
+			} else {
+				final int x0 = rx * REGION_SIZE;
+				Direction.SOUTH.move(grid, x0 + rand.nextInt(Math.min(REGION_SIZE, size - x0)),
+						(ry + 1) * REGION_SIZE - 1);
+			}
+		}
+	}
+
+	/**
+	 * Finds the root of a set (with path halving).
+	 *
+	 * @param parent the parents of the sets.
+	 * @param s      the set.
+	 * @return the root set of <code>s</code>.
+	 */
+	private static int find(int[] parent, int s) {
+		while (parent[s] != s) {
+			parent[s] = parent[parent[s]];
+			s = parent[s];
+		}
+		return s;
+	}
+
+	/**
+	 * Carves a range of regions. A range of more than one region is split in
+	 * half, and both halves are forked.
+	 */
+	private static final class CarveRegions extends RecursiveAction {
+		private static final long serialVersionUID = 4926016436021866711L;
+		private final ParallelGenerator parent;
+		/** The first region (inclusive) */
+		private final int fromRegion;
+		/** The last region (exclusive) */
+		private final int toRegion;
+
+		CarveRegions(ParallelGenerator parent, int fromRegion, int toRegion) {
+			this.parent = parent;
+			this.fromRegion = fromRegion;
+			this.toRegion = toRegion;
+		}
+
+		@Override
+		protected void compute() {
+			if (toRegion - fromRegion == 1) {
+				parent.carveRegion(fromRegion, new int[REGION_SIZE * REGION_SIZE]);
+			} else {
+				final int middle = (fromRegion + toRegion) >>> 1;
+				invokeAll(new CarveRegions(parent, fromRegion, middle), new CarveRegions(parent, middle, toRegion));
+			}
+		}
+	}
+}
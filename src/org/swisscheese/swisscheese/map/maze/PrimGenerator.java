@@ -0,0 +1,171 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.map.maze;
+
+import java.util.SplittableRandom;
+
+import org.swisscheese.swisscheese.annotations.ThreadSafe;
+import org.swisscheese.swisscheese.map.maze.CellGrid.Direction;
+import org.swisscheese.swisscheese.math.GeomPoint2D;
+
+/**
+ * Generates a maze through Randomized Prim's algorithm.
+ * <p>
+ * One random cell starts as the maze, and the cells next to it are the
+ * frontier. A random cell of the frontier is joined to a random adjacent cell
+ * that is already in the maze (by breaking the wall between them), and its
+ * adjacent cells that are not in the maze join the frontier. The algorithm
+ * continues until the frontier is empty.
+ * <p>
+ * The frontier is an {@code int} array of cell indices. A random cell is
+ * removed by replacing it with the last cell of the frontier, so every step
+ * takes constant time.
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-11
+ * @since v1.0
+ * @version v1.0
+ * @see <a href="https://en.wikipedia.org/wiki/Maze_generation_algorithm">Maze
+ *      generation algorithms</a>
+ */
+@ThreadSafe
+public final class PrimGenerator {
+	private static final Direction[] DIRECTIONS = Direction.values();
+	private final int size; // size of maze size*size
+	private final CellGrid grid;
+	private final SplittableRandom rand;
+	private final GenerationMonitor monitor;
+
+	/**
+	 * Private constructor for PrimGenerator
+	 *
+	 * @param size    size of the CellGrid (dimensions: size*size).
+	 * @param seed    the seed of the random choices.
+	 * @param monitor the monitor of the generation.
+	 */
+	private PrimGenerator(int size, long seed, GenerationMonitor monitor) {
+		this.size = size;
+		rand = new SplittableRandom(seed);
+		grid = CellGrid.newCellGrid(size, size);
+		this.monitor = monitor;
+	}
+
+	/**
+	 * Generates a new maze.
+	 *
+	 * @param size size of the CellGrid (dimensions: size*size). The size of the
+	 *             map will be (size*2+3).
+	 * @param seed the seed of the maze. The same seed and size always generate the
+	 *             same maze.
+	 * @return the newly generated {@link Maze}.
+	 */
+	public static Maze generateMaze(int size, long seed) {
+		return generateMaze(size, seed, GenerationMonitor.NONE);
+	}
+
+	/**
+	 * Generates a new maze, and reports the progress to <code>monitor</code>.
+	 *
+	 * @param size    size of the CellGrid (dimensions: size*size). The size of the
+	 *                map will be (size*2+3).
+	 * @param seed    the seed of the maze.
+	 * @param monitor the monitor of the generation (started by
+	 *                {@link MazeAlgorithm}).
+	 * @return the newly generated {@link Maze}.
+	 */
+	static Maze generateMaze(int size, long seed, GenerationMonitor monitor) {
+		return new PrimGenerator(size, seed, monitor).generate(seed);
+	}
+
+	/**
+	 * Private method that generates the maze. A cell is in the maze if it is
+	 * marked as visited.
+	 *
+	 * @param seed the seed of the maze (recorded in the result).
+	 * @return the generated {@link Maze}.
+	 */
+	private Maze generate(long seed) {
+		final GeomPoint2D<Integer> entry = Direction.NORTH.makeExit(grid, rand.nextInt(size));
+
+		final int[] frontier = new int[size * size];
+		final boolean[] inFrontier = new boolean[size * size];
+		final Direction[] available = new Direction[DIRECTIONS.length];
+		int frontierSize = 0;
+
+		int cell = rand.nextInt(size * size);
+		int x = cell % size;
+		int y = cell / size;
+		int nx;
+		int ny;
+		int i;
+		int count;
+		int carved = 1;
+		Direction direction;
+		grid.markVisited(x, y);
+		while (true) {
+			// the cells next to the new cell join the frontier
+			for (Direction d : DIRECTIONS) {
+				nx = x + d.dx();
+				ny = y + d.dy();
+				if (inGrid(nx, ny) && !grid.checkVisited(nx, ny) && !inFrontier[nx + ny * size]) {
+					inFrontier[nx + ny * size] = true;
+					frontier[frontierSize++] = nx + ny * size;
+				}
+			}
+			if (frontierSize == 0) {
+				break;
+			}
+
+			i = rand.nextInt(frontierSize);
+			cell = frontier[i];
+			frontier[i] = frontier[--frontierSize];
+			x = cell % size;
+			y = cell / size;
+
+			count = 0;
+			for (Direction d : DIRECTIONS) {
+				nx = x + d.dx();
+				ny = y + d.dy();
+				if (inGrid(nx, ny) && grid.checkVisited(nx, ny)) {
+					available[count++] = d;
+				}
+			}
+			direction = (count == 1) ? available[0] : available[rand.nextInt(count)];
+			grid.set(x, y, direction.wall() | CellGrid.VISITED);
+			grid.set(x + direction.dx(), y + direction.dy(), direction.antiDirection().wall());
+			if (++carved == size) {
+				monitor.advance(carved);
+				carved = 0;
+			}
+		}
+
+		monitor.advance(carved); // the cells left since the last report
+
+		final GeomPoint2D<Integer> exit = Generator.intToDirection(rand.nextInt(3) + 1).makeExit(grid,
+				rand.nextInt(size - 1));
+		return new Maze(grid, Generator.realEntry(entry), Generator.realExit(exit, size), seed);
+	}
+
+	/**
+	 * @param x x-location of a cell
+	 * @param y y-location of a cell
+	 * @return true if the cell is inside the grid.
+	 */
+	private boolean inGrid(int x, int y) {
+		return x >= 0 && y >= 0 && x < size && y < size;
+	}
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.map.maze;
+
+/**
+ * Receives the progress of a maze that is being generated (through a
+ * {@link GenerationMonitor}).
+ * <p>
+ * The listener is called on the thread that generates the maze, so a listener
+ * that updates Swing components must hand the update to the event dispatch
+ * thread.
+ * 
+ * @author Alex Kalinins
+ * @since 2019-02-16
+ * @since v1.0
+ * @version v1.0
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+	/**
+	 * Called when more of the maze has been generated.
+	 * 
+	 * @param progress the part of the maze that is generated (from 0 to 1).
+	 */
+	void progress(float progress);
+}
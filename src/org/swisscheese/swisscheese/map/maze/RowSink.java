@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.map.maze;
+
+import java.io.IOException;
+
+/**
+ * A destination for the rows of a maze that is generated one row at a time (by
+ * {@link EllerGenerator}). A sink can, for example, write the rows to a file
+ * ({@link RowWriter}) or store them in a {@link CellGrid}.
+ * <p>
+ * Each cell of a row is a {@code byte} with the same bits as the cells of
+ * {@link CellGrid} ({@link CellGrid#NORTH}, {@link CellGrid#EAST},
+ * {@link CellGrid#SOUTH} and {@link CellGrid#WEST} are set for broken walls).
+ * 
+ * @author Alex Kalinins
+ * @since 2019-02-09
+ * @since v1.0
+ * @version v1.0
+ */
+@FunctionalInterface
+public interface RowSink {
+
+	/**
+	 * Accepts the next row of the maze. Rows are accepted in order, from the top
+	 * (<code>y = 0</code>) to the bottom.
+	 * <p>
+	 * The array is reused for the next row, so it must be copied if it is kept.
+	 * 
+	 * @param y   the index of the row.
+	 * @param row the cells of the row.
+	 * @throws IOException if the row cannot be written.
+	 */
+	void acceptRow(long y, byte[] row) throws IOException;
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.map.maze;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.swisscheese.swisscheese.annotations.NotThreadSafe;
+
+/**
+ * A {@link RowSink} that writes the rows of a maze to an {@code OutputStream}
+ * (for example a file). Every row is written as its cell bytes, so a maze of
+ * <code>width</code> by <code>height</code> cells takes
+ * <code>width * height</code> bytes.
+ * 
+ * @author Alex Kalinins
+ * @since 2019-02-09
+ * @since v1.0
+ * @version v1.0
+ */
+@NotThreadSafe
+public class RowWriter implements RowSink, Closeable {
+	private final OutputStream out;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param out the stream to which the rows are written. It is closed when the
+	 *            {@code RowWriter} is closed.
+	 */
+	public RowWriter(OutputStream out) {
+		this.out = new BufferedOutputStream(out);
+	}
+
+	@Override
+	public void acceptRow(long y, byte[] row) throws IOException {
+		out.write(row);
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}
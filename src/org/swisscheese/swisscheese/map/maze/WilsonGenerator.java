@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.map.maze;
+
+import java.util.SplittableRandom;
+
+import org.swisscheese.swisscheese.annotations.ThreadSafe;
+import org.swisscheese.swisscheese.map.maze.CellGrid.Direction;
+import org.swisscheese.swisscheese.math.GeomPoint2D;
+
+/**
+ * Generates a maze through Wilson's algorithm (loop-erased random walks).
+ * <p>
+ * One random cell starts as the maze. From every cell that is not in the maze
+ * yet, a random walk is made until it reaches the maze. Only the last direction
+ * taken from every cell of the walk is kept, which erases the loops of the
+ * walk. The walk is then followed again from its first cell, breaking the walls
+ * on the way and adding the cells to the maze.
+ * <p>
+ * Unlike the other algorithms, Wilson's algorithm picks every possible maze
+ * with the same probability, so the mazes have no bias towards long corridors
+ * or short dead-ends.
+ * <p>
+ * The direction of every cell of the walk is kept in a single {@code byte}
+ * array, so no objects are created during the walks.
+ *
+ * @author Alex Kalinins
+ * @since 2019-02-11
+ * @since v1.0
+ * @version v1.0
+ * @see <a href="https://en.wikipedia.org/wiki/Loop-erased_random_walk">
+ *      Loop-erased random walk</a>
+ */
+@ThreadSafe
+public final class WilsonGenerator {
+	private static final Direction[] DIRECTIONS = Direction.values();
+	private final int size; // size of maze size*size
+	private final CellGrid grid;
+	private final SplittableRandom rand;
+	private final GenerationMonitor monitor;
+
+	/**
+	 * Private constructor for WilsonGenerator
+	 *
+	 * @param size    size of the CellGrid (dimensions: size*size).
+	 * @param seed    the seed of the random choices.
+	 * @param monitor the monitor of the generation.
+	 */
+	private WilsonGenerator(int size, long seed, GenerationMonitor monitor) {
+		this.size = size;
+		rand = new SplittableRandom(seed);
+		grid = CellGrid.newCellGrid(size, size);
+		this.monitor = monitor;
+	}
+
+	/**
+	 * Generates a new maze.
+	 *
+	 * @param size size of the CellGrid (dimensions: size*size). The size of the
+	 *             map will be (size*2+3).
+	 * @param seed the seed of the maze. The same seed and size always generate the
+	 *             same maze.
+	 * @return the newly generated {@link Maze}.
+	 */
+	public static Maze generateMaze(int size, long seed) {
+		return generateMaze(size, seed, GenerationMonitor.NONE);
+	}
+
+	/**
+	 * Generates a new maze, and reports the progress to <code>monitor</code>.
+	 *
+	 * @param size    size of the CellGrid (dimensions: size*size). The size of the
+	 *                map will be (size*2+3).
+	 * @param seed    the seed of the maze.
+	 * @param monitor the monitor of the generation (started by
+	 *                {@link MazeAlgorithm}).
+	 * @return the newly generated {@link Maze}.
+	 */
+	static Maze generateMaze(int size, long seed, GenerationMonitor monitor) {
+		return new WilsonGenerator(size, seed, monitor).generate(seed);
+	}
+
+	/**
+	 * Private method that generates the maze. A cell is in the maze if it is
+	 * marked as visited.
+	 *
+	 * @param seed the seed of the maze (recorded in the result).
+	 * @return the generated {@link Maze}.
+	 */
+	private Maze generate(long seed) {
+		final GeomPoint2D<Integer> entry = Direction.NORTH.makeExit(grid, rand.nextInt(size));
+
+		// the last direction (ordinal) taken from each cell of the current walk
+		final byte[] walk = new byte[size * size];
+		final Direction[] available = new Direction[DIRECTIONS.length];
+
+		final int first = rand.nextInt(size * size);
+		grid.markVisited(first % size, first / size);
+
+		int x;
+		int y;
+		int count;
+		int carved = 1;
+		Direction direction;
+		for (int start = 0; start < size * size; start++) {
+			// random walk until the maze is reached
+			x = start % size;
+			y = start / size;
+			while (!grid.checkVisited(x, y)) {
+				count = 0;
+				for (Direction d : DIRECTIONS) {
+					if (inGrid(x + d.dx(), y + d.dy())) {
+						available[count++] = d;
+					}
+				}
+				direction = available[rand.nextInt(count)];
+				walk[x + y * size] = (byte) direction.ordinal();
+				x += direction.dx();
+				y += direction.dy();
+			}
+
+			// following the loop-erased walk, and adding it to the maze
+			x = start % size;
+			y = start / size;
+			while (!grid.checkVisited(x, y)) {
+				direction = DIRECTIONS[walk[x + y * size]];
+				grid.set(x, y, direction.wall() | CellGrid.VISITED);
+				x += direction.dx();
+				y += direction.dy();
+				grid.set(x, y, direction.antiDirection().wall());
+				if (++carved == size) {
+					monitor.advance(carved);
+					carved = 0;
+				}
+			}
+		}
+
+		monitor.advance(carved); // the cells left since the last report
+
+		final GeomPoint2D<Integer> exit = Generator.intToDirection(rand.nextInt(3) + 1).makeExit(grid,
+				rand.nextInt(size - 1));
+		return new Maze(grid, Generator.realEntry(entry), Generator.realExit(exit, size), seed);
+	}
+
+	/**
+	 * @param x x-location of a cell
+	 * @param y y-location of a cell
+	 * @return true if the cell is inside the grid.
+	 */
+	private boolean inGrid(int x, int y) {
+		return x >= 0 && y >= 0 && x < size && y < size;
+	}
+}
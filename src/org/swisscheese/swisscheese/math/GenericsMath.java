@@ -123,13 +123,12 @@ public strictfp class GenericsMath {
 	 * 
 	 * @param obj    Object being casted
 	 * @param classs Type
-	 * @return {@code obj} casted to {@code classs}
+	 * @return {@code obj} casted to {@code classs}, or {@code null} if it is not
+	 *         an instance of {@code classs}.
 	 */
 	public static final <T> T castToGeneric(Object obj, Class<T> classs) {
-		try {
-			return classs.cast(obj);
-		} catch (ClassCastException e) {
-			return null;
-		}
+		// checked instead of catching ClassCastException, which filled in a stack
+		// trace every time a vector was made from an end point.
+		return classs.isInstance(obj) ? classs.cast(obj) : null;
 	}
 }
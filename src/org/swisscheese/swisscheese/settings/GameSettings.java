@@ -51,6 +51,11 @@ public class GameSettings {
 	 * disregarded.
 	 */
 	private final boolean fitToScreen;
+	/**
+	 * if {@code pipelined} boolean is true, frames are displayed by a separate
+	 * thread while the next frame is rendered.
+	 */
+	private final boolean pipelined;
 	private final TexturePack texturePack;
 	private final UseRenderer useRenderer;
 	private final float FOV;
@@ -65,7 +70,7 @@ public class GameSettings {
 	 */
 	@Deprecated
 	public GameSettings() {
-		this(WindowSize.S640X480, false, -0.9f, TexturePackList.LIST.getList().get(0),
+		this(WindowSize.S640X480, false, false, -0.9f, TexturePackList.LIST.getList().get(0),
 				new UseRenderer(RendererType.SINGLE_THREAD));
 	}
 
@@ -74,18 +79,20 @@ public class GameSettings {
 	 * 
 	 * @param windowSize  window size enum of the game.
 	 * @param fitToScreen if the game will fit the user screen
+	 * @param pipelined   if frames are displayed while the next one is rendered
 	 * @param FOV         the field of view of the user. <strong>Recommended Value:
 	 *                    -0.5 to -1.5</strong>
 	 * @param useless     useless variable to avoid ambigous constructor.
 	 * @param texturePack the texture pack the game will use.
 	 */
-	public GameSettings(WindowSize windowSize, boolean fitToScreen, float FOV, TexturePack texturePack,
-			UseRenderer useRenderer, int... useless) {
+	public GameSettings(WindowSize windowSize, boolean fitToScreen, boolean pipelined, float FOV,
+			TexturePack texturePack, UseRenderer useRenderer, int... useless) {
 		if (FOV > -0.1f) {
 			throw new IllegalArgumentException("FOV must be less than -0.1");
 		}
 		this.windowSize = windowSize;
 		this.fitToScreen = fitToScreen;
+		this.pipelined = pipelined;
 		this.FOV = FOV;
 		this.useRenderer = useRenderer;
 		this.texturePack = texturePack;
@@ -101,11 +108,12 @@ public class GameSettings {
 	 * 
 	 * @param windowSize  window size enum of the game
 	 * @param fitToScreen if the game will fit the user screen
+	 * @param pipelined   if frames are displayed while the next one is rendered
 	 * @param existing    an existing {@code GameSave}
 	 */
-	public GameSettings(WindowSize windowSize, boolean fitToScreen, float FOV, UseRenderer useRenderer,
-			GameSettings existing) {
-		this(windowSize, fitToScreen, FOV, existing.getTexturePack(), useRenderer);
+	public GameSettings(WindowSize windowSize, boolean fitToScreen, boolean pipelined, float FOV,
+			UseRenderer useRenderer, GameSettings existing) {
+		this(windowSize, fitToScreen, pipelined, FOV, existing.getTexturePack(), useRenderer);
 	}
 
 	/**
@@ -116,8 +124,8 @@ public class GameSettings {
 	 * @param existing    existing GameSettings object.
 	 */
 	public GameSettings(TexturePack texturePack, GameSettings existing) {
-		this(existing.getWindowSize(), existing.isFitToScreen(), existing.getFOV(), texturePack,
-				existing.getUseRenderer());
+		this(existing.getWindowSize(), existing.isFitToScreen(), existing.isPipelined(), existing.getFOV(),
+				texturePack, existing.getUseRenderer());
 
 	}
 
@@ -129,6 +137,10 @@ public class GameSettings {
 		return fitToScreen;
 	}
 
+	public final boolean isPipelined() {
+		return pipelined;
+	}
+
 	public final TexturePack getTexturePack() {
 		return texturePack;
 	}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2018  Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.swisscheese.swisscheese.uiWindows;
+
+import java.awt.BorderLayout;
+
+import javax.swing.BorderFactory;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+
+import org.swisscheese.swisscheese.SwissCheese;
+import org.swisscheese.swisscheese.map.DifficultyLevel;
+import org.swisscheese.swisscheese.map.maze.ProgressListener;
+
+/**
+ * A small window that shows the progress of the maze of a new game while it is
+ * generated on another thread.
+ * 
+ * @author Alex Kalinins
+ * @since 2019-02-16
+ * @since v1.0
+ * @version v1.0
+ */
+public final class GenerationProgressWindow extends JFrame implements ProgressListener {
+	private static final long serialVersionUID = -2385917496264531094L;
+	private static final int STEPS = 1000;
+	private final JProgressBar bar = new JProgressBar(0, STEPS);
+
+	/**
+	 * Constructor for {@code GenerationProgressWindow}. The window is shown
+	 * immediately.
+	 * 
+	 * @param level the difficulty level of the maze that is generated.
+	 */
+	public GenerationProgressWindow(DifficultyLevel level) {
+		setTitle(SwissCheese.TITLE);
+		setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+		setLayout(new BorderLayout(7, 7));
+		getRootPane().setBorder(BorderFactory.createEmptyBorder(7, 7, 7, 7));
+		add(new JLabel("Generating the maze: " + level), BorderLayout.NORTH);
+		bar.setStringPainted(true);
+		add(bar, BorderLayout.CENTER);
+		pack();
+		setLocationRelativeTo(null);
+		setVisible(true);
+	}
+
+	/**
+	 * Shows the progress. Can be called from any thread.
+	 */
+	@Override
+	public void progress(float progress) {
+		final int value = (int) (progress * STEPS);
+		SwingUtilities.invokeLater(() -> bar.setValue(value));
+	}
+}
@@ -205,7 +205,7 @@ public final class InGameMenu extends JDialog {
 		@SuppressWarnings("static-access")
 		RendererDetails oldD = Window.getWindow().getRenderer().getDetails();
 		RendererDetails newD;
-		if (use.type == RendererType.CHUNK || use.type == RendererType.STRIP) {
+		if (use.type != RendererType.SINGLE_THREAD) {
 			newD = new MultithreadedRendererDetails(oldD.width, oldD.height, oldD.wallTextures, oldD.maze,
 					use.nThreads);
 		} else if (use.type == RendererType.SINGLE_THREAD && oldD instanceof MultithreadedRendererDetails) {
@@ -64,7 +64,7 @@ final class NewGamePanel extends AbstractMakeGamePanel {
 
 		add(new JLabel("Difficulty:"),cst);
 		cst.gridx = 1;
-		diff = new JComboBox<>(DifficultyLevel.values());
+		diff = new JComboBox<>(DifficultyLevel.available());
 		diff.setSelectedItem(DifficultyLevel.NORMAL);
 		add(diff,cst);
 	}
@@ -31,7 +31,6 @@ import javax.swing.SwingConstants;
 
 import org.swisscheese.swisscheese.engine.details.UseRenderer;
 import org.swisscheese.swisscheese.engine.display.Window;
-import org.swisscheese.swisscheese.engine.rendering.ChunkRendererDispatcher;
 import org.swisscheese.swisscheese.engine.rendering.MultithreadedRendererDispatcher;
 import org.swisscheese.swisscheese.engine.rendering.Renderer;
 import org.swisscheese.swisscheese.engine.rendering.RendererType;
@@ -102,16 +101,11 @@ class RendererPanel extends JPanel {
 		}
 
 		if (renderer instanceof SingleThreadedRenderer) {
-			type.setSelectedItem(RendererType.SINGLE_THREAD);
 			cst.gridy = 4;
 			cst.gridwidth = 2;
 			String time = String.format("Avg. Time: %.3f sec.",
 					((SingleThreadedRenderer) renderer).getAverageRenderingTime());
 			add(new JLabel(time), cst);
-		} else if (renderer instanceof ChunkRendererDispatcher) {
-			type.setSelectedItem(RendererType.CHUNK);
-		} else {
-			type.setSelectedItem(RendererType.STRIP);
 		}
 
 	}
@@ -61,6 +61,7 @@ class SettingsPanel extends JPanel {
 	private final JScrollPane scrollPane;
 	private final JComboBox<WindowSize> sizeSelect = new JComboBox<>(WindowSize.values());
 	private final JCheckBox fitToScreen = new JCheckBox("Fit to Screen");
+	private final JCheckBox pipelined = new JCheckBox("Pipelined Rendering");
 	private final GameSettings settings;
 	private final JButton applyChanges = new JButton("Apply Changes");
 	private final JSlider fovSlider = new JSlider(JSlider.HORIZONTAL, 5, 15, 9);
@@ -145,6 +146,10 @@ class SettingsPanel extends JPanel {
 		fitToScreen.setSelected(settings.isFitToScreen());
 		panel.add(fitToScreen, cst);
 
+		cst.gridy++;
+		pipelined.setSelected(settings.isPipelined());
+		panel.add(pipelined, cst);
+
 		cst.gridy++;
 		cst.gridx = 0;
 		cst.gridwidth = 1;
@@ -178,6 +183,10 @@ class SettingsPanel extends JPanel {
 		return fitToScreen.isSelected();
 	}
 
+	public final boolean getPipelined() {
+		return pipelined.isSelected();
+	}
+
 	/**
 	 * Returns an FOV decimal that the user has selected between -0.5 and -1.5
 	 * 
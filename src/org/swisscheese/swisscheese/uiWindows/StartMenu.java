@@ -331,12 +331,13 @@ public class StartMenu extends JDialog {
 	private void applySettingsChanges() {
 		final WindowSize size = (WindowSize) settingsPanel.getSizeSelect();
 		final boolean fitToScreen = settingsPanel.getFitToScreen();
+		final boolean pipelined = settingsPanel.getPipelined();
 		final float FOV = settingsPanel.getFovSelection();
 		final UseRenderer useRenderer = settingsPanel.getUseRenderer();
 		if (useRenderer == null) {
 			return;
 		}
-		settings = new GameSettings(size, fitToScreen, FOV, useRenderer, settings);
+		settings = new GameSettings(size, fitToScreen, pipelined, FOV, useRenderer, settings);
 		GameSettingsManager.MANAGER.updateSettings(settings);
 	}
 
@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package test.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.swisscheese.swisscheese.map.CellSource;
+import org.swisscheese.swisscheese.map.ChunkedMaze;
+
+/**
+ * Test for {@link ChunkedMaze}.
+ *
+ * @author Alex Kalinins
+ * @since v1.0
+ */
+public class ChunkedMazeTest {
+	/** Map cells on each side of a chunk */
+	private static final int CHUNK = ChunkedMaze.CHUNK_SIZE * 2;
+	/** Map cells on each side of the tested area (3x3 chunks) */
+	private static final int AREA = CHUNK * 3;
+
+	/**
+	 * The same world seed generates the same maze, even if chunks were dropped
+	 * from the cache and generated again.
+	 */
+	@Test
+	public void testSameSeedAfterEviction() {
+		ChunkedMaze large = new ChunkedMaze(17L, 100);
+		ChunkedMaze small = new ChunkedMaze(17L, 2);
+		// the small cache drops chunks all the time when the area is read by columns
+		for (int x = 0; x < AREA; x++) {
+			for (int y = 0; y < AREA; y++) {
+				assertEquals(large.getCell(x, y), small.getCell(x, y));
+			}
+		}
+		assertEquals(2, small.getCachedChunks());
+		assertEquals(9, large.getCachedChunks());
+	}
+
+	/**
+	 * Cursors that look into different chunks at once find the same cells as the
+	 * maze, even when their chunks were dropped from the cache.
+	 */
+	@Test
+	public void testCursors() {
+		ChunkedMaze large = new ChunkedMaze(23L, 100);
+		ChunkedMaze small = new ChunkedMaze(23L, 1);
+		CellSource first = small.cursor();
+		CellSource second = small.cursor();
+		for (int x = 0; x < CHUNK; x++) {
+			for (int y = 0; y < CHUNK; y++) {
+				assertEquals(large.getCell(x, y), first.getCell(x, y));
+				assertEquals(large.getCell(x + CHUNK, y + CHUNK), second.getCell(x + CHUNK, y + CHUNK));
+			}
+		}
+		assertEquals(1, small.getCachedChunks());
+	}
+
+	/**
+	 * Locations with a negative coordinate are walls.
+	 */
+	@Test
+	public void testOutside() {
+		ChunkedMaze maze = new ChunkedMaze(3L);
+		assertEquals(CellSource.OUTSIDE, maze.getCell(-1, 5));
+		assertEquals(CellSource.OUTSIDE, maze.getCell(5, -1));
+		assertTrue(maze.getCell(0, 5) >= CellSource.OUTSIDE);
+		assertTrue(maze.getCell(5, 0) >= CellSource.OUTSIDE);
+	}
+
+	/**
+	 * Every maze cell of the area is reachable from the first maze cell, through
+	 * the walls between the chunks.
+	 */
+	@Test
+	public void testChunksConnected() {
+		ChunkedMaze maze = new ChunkedMaze(5L);
+		boolean[][] seen = new boolean[AREA][AREA];
+		int[] queue = new int[AREA * AREA];
+		int head = 0;
+		int tail = 0;
+		int cells = 0;
+		queue[tail++] = 1 + AREA;
+		seen[1][1] = true;
+		int[][] moves = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+		while (head < tail) {
+			int x = queue[head] % AREA;
+			int y = queue[head++] / AREA;
+			if (x % 2 == 1 && y % 2 == 1) {
+				cells++;
+			}
+			for (int[] m : moves) {
+				int nx = x + m[0];
+				int ny = y + m[1];
+				if (nx >= 0 && ny >= 0 && nx < AREA && ny < AREA && maze.getCell(nx, ny) == 0 && !seen[nx][ny]) {
+					seen[nx][ny] = true;
+					queue[tail++] = nx + ny * AREA;
+				}
+			}
+		}
+		assertEquals((AREA / 2) * (AREA / 2), cells);
+	}
+}
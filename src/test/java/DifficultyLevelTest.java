@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package test.java;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+import org.swisscheese.swisscheese.map.DifficultyLevel;
+import org.swisscheese.swisscheese.map.Map;
+import org.swisscheese.swisscheese.map.maze.MazeAlgorithm;
+
+/**
+ * Test for {@link DifficultyLevel#estimateMemory(int)}.
+ *
+ * @author Alex Kalinins
+ * @since v1.0
+ */
+public class DifficultyLevelTest {
+	private static final int SIZE = 300;
+
+	/**
+	 * Every algorithm allocates less than the estimate (on all threads) to
+	 * generate a map and build its grid. The peak of the memory in use can only
+	 * be lower than what was allocated.
+	 */
+	@Test
+	public void testEstimateMemory() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+		for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+			new Map(SIZE, 1L, algorithm).getCellSource(); // warming up the classes
+
+			long before = allocated(threads);
+			new Map(SIZE, 2L, algorithm).getCellSource();
+			long bytes = allocated(threads) - before;
+			assertTrue(algorithm + " allocated " + bytes + " bytes",
+					bytes < DifficultyLevel.estimateMemory(SIZE));
+		}
+	}
+
+	/**
+	 * The bytes allocated by all live threads so far.
+	 */
+	private long allocated(com.sun.management.ThreadMXBean threads) {
+		long total = 0;
+		for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+			total += Math.max(bytes, 0);
+		}
+		return total;
+	}
+}
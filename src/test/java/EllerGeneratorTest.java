@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package test.java;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+import org.swisscheese.swisscheese.map.maze.CellGrid;
+import org.swisscheese.swisscheese.map.maze.EllerGenerator;
+import org.swisscheese.swisscheese.map.maze.RowWriter;
+
+/**
+ * Test for {@link EllerGenerator}.
+ *
+ * @author Alex Kalinins
+ * @since v1.0
+ */
+public class EllerGeneratorTest {
+	private static final int WIDTH = 40;
+	private static final int HEIGHT = 25;
+
+	/**
+	 * The generated maze is perfect: the walls of adjacent cells agree, there is
+	 * one passage less than there are cells, and every cell is reachable.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testPerfectMaze() throws IOException {
+		CellGrid grid = CellGrid.newCellGrid(WIDTH, HEIGHT);
+		EllerGenerator.generate(WIDTH, HEIGHT, 3L, grid.asRowSink());
+
+		int passages = 0;
+		for (int y = 0; y < HEIGHT; y++) {
+			for (int x = 0; x < WIDTH; x++) {
+				if (x < WIDTH - 1) {
+					assertEquals(grid.isSet(x, y, CellGrid.EAST), grid.isSet(x + 1, y, CellGrid.WEST));
+					passages += grid.isSet(x, y, CellGrid.EAST) ? 1 : 0;
+				}
+				if (y < HEIGHT - 1) {
+					assertEquals(grid.isSet(x, y, CellGrid.SOUTH), grid.isSet(x, y + 1, CellGrid.NORTH));
+					passages += grid.isSet(x, y, CellGrid.SOUTH) ? 1 : 0;
+				}
+			}
+		}
+		assertEquals(WIDTH * HEIGHT - 1, passages);
+		assertEquals(WIDTH * HEIGHT, countReachable(grid));
+	}
+
+	/**
+	 * The same seed generates the same rows.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void testSameSeed() throws IOException {
+		assertArrayEquals(write(11L), write(11L));
+	}
+
+	private byte[] write(long seed) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (RowWriter writer = new RowWriter(out)) {
+			EllerGenerator.generate(WIDTH, HEIGHT, seed, writer);
+		}
+		assertEquals(WIDTH * HEIGHT, out.size());
+		return out.toByteArray();
+	}
+
+	/**
+	 * Counts the cells that are reachable from the top left cell.
+	 */
+	private int countReachable(CellGrid grid) {
+		boolean[] seen = new boolean[WIDTH * HEIGHT];
+		int[] queue = new int[WIDTH * HEIGHT];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = 0;
+		seen[0] = true;
+		while (head < tail) {
+			int cell = queue[head++];
+			int x = cell % WIDTH;
+			int y = cell / WIDTH;
+			int[][] moves = { { CellGrid.NORTH, 0, -1 }, { CellGrid.EAST, 1, 0 }, { CellGrid.SOUTH, 0, 1 },
+					{ CellGrid.WEST, -1, 0 } };
+			for (int[] m : moves) {
+				int nx = x + m[1];
+				int ny = y + m[2];
+				if (grid.isSet(x, y, m[0]) && nx >= 0 && ny >= 0 && nx < WIDTH && ny < HEIGHT
+						&& !seen[nx + ny * WIDTH]) {
+					seen[nx + ny * WIDTH] = true;
+					queue[tail++] = nx + ny * WIDTH;
+				}
+			}
+		}
+		return tail;
+	}
+}
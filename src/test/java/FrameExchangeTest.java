@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package test.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.swisscheese.swisscheese.engine.display.FrameExchange;
+
+/**
+ * Test for {@link FrameExchange}.
+ *
+ * @author Alex Kalinins
+ * @since v1.0
+ */
+public class FrameExchangeTest {
+	FrameExchange frames;
+
+	/**
+	 * The setup for the test.
+	 *
+	 * @throws Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		frames = new FrameExchange(4, 2);
+	}
+
+	/**
+	 * The published frame is the acquired frame (the pixels are in the image).
+	 */
+	@Test
+	public void testPublishAcquire() {
+		assertFalse(frames.acquire());
+
+		frames.getBackPixels()[0] = 0x123456;
+		frames.publish();
+		assertTrue(frames.acquire());
+		assertFalse(frames.acquire());
+
+		BufferedImage front = frames.getFrontImage();
+		assertEquals(0x123456, front.getRGB(0, 0) & 0xFFFFFF);
+	}
+
+	/**
+	 * If the frames are rendered faster than displayed, the latest one is
+	 * displayed.
+	 */
+	@Test
+	public void testLatestFrameWins() {
+		for (int i = 1; i <= 5; i++) {
+			frames.getBackPixels()[0] = i;
+			frames.publish();
+		}
+		assertTrue(frames.acquire());
+		assertEquals(5, frames.getFrontImage().getRGB(0, 0) & 0xFFFFFF);
+
+		// the renderer never draws into the displayed frame.
+		frames.getBackPixels()[0] = 6;
+		assertEquals(5, frames.getFrontImage().getRGB(0, 0) & 0xFFFFFF);
+	}
+
+	/**
+	 * The back frame is an older frame, unless the last published frame is
+	 * copied into it.
+	 */
+	@Test
+	public void testCopyLastFrame() {
+		for (int i = 1; i <= 3; i++) {
+			frames.getBackPixels()[0] = i;
+			frames.publish();
+		}
+		assertEquals(2, frames.getBackPixels()[0]);
+
+		frames.copyLastFrame();
+		assertEquals(3, frames.getBackPixels()[0]);
+	}
+}
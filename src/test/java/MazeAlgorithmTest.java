@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package test.java;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CancellationException;
+
+import org.junit.Test;
+import org.swisscheese.swisscheese.map.maze.GenerationMonitor;
+import org.swisscheese.swisscheese.map.maze.Maze;
+import org.swisscheese.swisscheese.map.maze.MazeAlgorithm;
+
+/**
+ * Test for every {@link MazeAlgorithm}.
+ *
+ * @author Alex Kalinins
+ * @since v1.0
+ */
+public class MazeAlgorithmTest {
+	private static final int SIZE = 37;
+
+	/**
+	 * Every algorithm generates a perfect maze: there is one passage less than
+	 * there are cells, and every cell is reachable.
+	 */
+	@Test
+	public void testPerfectMaze() {
+		for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+			int[][] map = algorithm.generateMaze(SIZE, 3L).toArray();
+			int passages = 0;
+			for (int i = 2; i < map.length - 2; i++) {
+				for (int j = 2; j < map.length - 2; j++) {
+					if (map[i][j] == 0 && (i % 2 == 0) != (j % 2 == 0)) {
+						passages++;
+					}
+				}
+			}
+			assertEquals(algorithm.name(), SIZE * SIZE - 1, passages);
+			assertEquals(algorithm.name(), SIZE * SIZE, countReachableCells(map));
+		}
+	}
+
+	/**
+	 * Every algorithm generates the same maze from the same seed.
+	 */
+	@Test
+	public void testSameSeed() {
+		for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+			Maze first = algorithm.generateMaze(SIZE, 21L);
+			Maze second = algorithm.generateMaze(SIZE, 21L);
+			assertArrayEquals(algorithm.name(), first.toArray(), second.toArray());
+			assertEquals(algorithm.name(), first.getExit(), second.getExit());
+		}
+	}
+
+	/**
+	 * Every algorithm reports its progress up to the whole maze, and generates the
+	 * same maze with a monitor as without.
+	 */
+	@Test
+	public void testMonitor() {
+		for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+			float[] last = { -1f };
+			GenerationMonitor monitor = new GenerationMonitor(p -> {
+				assertTrue(p >= last[0]);
+				last[0] = p;
+			}, 0);
+			Maze maze = algorithm.generateMaze(SIZE, 5L, monitor);
+			assertEquals(algorithm.name(), 1f, monitor.getProgress(), 0f);
+			assertArrayEquals(algorithm.name(), algorithm.generateMaze(SIZE, 5L).toArray(), maze.toArray());
+		}
+	}
+
+	/**
+	 * A cancelled generation stops with a {@link CancellationException}.
+	 */
+	@Test(expected = CancellationException.class)
+	public void testCancel() {
+		GenerationMonitor monitor = new GenerationMonitor(null, 0);
+		monitor.cancel();
+		MazeAlgorithm.PRIM.generateMaze(SIZE, 5L, monitor);
+	}
+
+	/**
+	 * Counts the cells (even positions inside the outer wall) that are reachable
+	 * from the first cell.
+	 */
+	private int countReachableCells(int[][] map) {
+		int n = map.length;
+		boolean[][] seen = new boolean[n][n];
+		int[] queue = new int[n * n];
+		int head = 0;
+		int tail = 0;
+		int cells = 0;
+		queue[tail++] = 2 + 2 * n;
+		seen[2][2] = true;
+		int[][] moves = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+		while (head < tail) {
+			int i = queue[head] % n;
+			int j = queue[head++] / n;
+			if (i % 2 == 0 && j % 2 == 0) {
+				cells++;
+			}
+			for (int[] m : moves) {
+				int ni = i + m[0];
+				int nj = j + m[1];
+				if (ni >= 2 && nj >= 2 && ni < n - 2 && nj < n - 2 && map[ni][nj] == 0 && !seen[ni][nj]) {
+					seen[ni][nj] = true;
+					queue[tail++] = ni + nj * n;
+				}
+			}
+		}
+		return cells;
+	}
+}
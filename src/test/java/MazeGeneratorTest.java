@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package test.java;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.swisscheese.swisscheese.map.maze.Generator;
+import org.swisscheese.swisscheese.map.maze.Maze;
+
+/**
+ * Test for {@link Generator#generateMaze(int, long)}.
+ *
+ * @author Alex Kalinins
+ * @since v1.0
+ */
+public class MazeGeneratorTest {
+	private static final int SIZE = 30;
+	private static final int SEEDS = 16;
+
+	/**
+	 * The same seed generates the same maze.
+	 */
+	@Test
+	public void testSameSeed() {
+		Maze first = Generator.generateMaze(SIZE, 42L);
+		Maze second = Generator.generateMaze(SIZE, 42L);
+		assertArrayEquals(first.toArray(), second.toArray());
+		assertEquals(first.getEntry(), second.getEntry());
+		assertEquals(first.getExit(), second.getExit());
+		assertEquals(42L, first.getSeed());
+	}
+
+	/**
+	 * The maze is perfect: every cell is reachable through exactly one path, so
+	 * there is one passage less than there are cells.
+	 */
+	@Test
+	public void testPerfectMaze() {
+		int[][] map = Generator.generateMaze(SIZE, 7L).toArray();
+		int passages = 0;
+		// passages are between two cells (odd/even positions inside the wrapping
+		// wall and the outer wall of the maze).
+		for (int i = 2; i < map.length - 2; i++) {
+			for (int j = 2; j < map.length - 2; j++) {
+				if (map[i][j] == 0 && (i % 2 == 0) != (j % 2 == 0)) {
+					passages++;
+				}
+			}
+		}
+		assertEquals(SIZE * SIZE - 1, passages);
+	}
+
+	/**
+	 * Mazes generated by many threads at once are the same as the ones generated
+	 * by a single thread.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testConcurrentGeneration() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<int[][]>> futures = new ArrayList<>();
+			for (int i = 0; i < SEEDS; i++) {
+				final long seed = i;
+				futures.add(pool.submit(() -> Generator.generateMaze(SIZE, seed).toArray()));
+			}
+			for (int i = 0; i < SEEDS; i++) {
+				assertArrayEquals(Generator.generateMaze(SIZE, i).toArray(), futures.get(i).get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package test.java;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.swisscheese.swisscheese.map.MazeGrid;
+
+/**
+ * Test for {@link MazeGrid}.
+ *
+ * @author Alex Kalinins
+ * @since v1.0
+ */
+public class MazeGridTest {
+	private static final int SIZE = 40;
+
+	/**
+	 * The cells of the grid are the cells of the map array, and the distance field
+	 * holds the Chebyshev distance to the nearest wall (including the border).
+	 */
+	@Test
+	public void testCellsAndDistances() {
+		Random random = new Random(8);
+		int[][] map = new int[SIZE][SIZE];
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				map[x][y] = (random.nextInt(30) == 0) ? 3 + random.nextInt(3) : 0;
+			}
+		}
+		MazeGrid grid = new MazeGrid(map);
+		byte[] cells = grid.getCells();
+
+		for (int x = -MazeGrid.BORDER; x < SIZE + MazeGrid.BORDER; x++) {
+			for (int y = -MazeGrid.BORDER; y < SIZE + MazeGrid.BORDER; y++) {
+				boolean inside = x >= 0 && y >= 0 && x < SIZE && y < SIZE;
+				int expected = inside ? map[x][y] : MazeGrid.OUTSIDE;
+				assertEquals(expected, grid.getCell(x, y));
+				if (expected == 0) {
+					assertEquals(-nearestWall(map, x, y), cells[grid.indexOf(x, y)]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the Chebyshev distance to the nearest wall by brute force.
+	 */
+	private int nearestWall(int[][] map, int x, int y) {
+		int nearest = Math.min(Math.min(x, y), Math.min(SIZE - 1 - x, SIZE - 1 - y)) + 1; // the border
+		for (int i = 0; i < SIZE; i++) {
+			for (int j = 0; j < SIZE; j++) {
+				if (map[i][j] > 0) {
+					nearest = Math.min(nearest, Math.max(Math.abs(i - x), Math.abs(j - y)));
+				}
+			}
+		}
+		return Math.min(nearest, MazeGrid.MAX_DISTANCE);
+	}
+}
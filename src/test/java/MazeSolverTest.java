@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package test.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.swisscheese.swisscheese.map.FlowField;
+import org.swisscheese.swisscheese.map.Map;
+import org.swisscheese.swisscheese.map.MazeGrid;
+import org.swisscheese.swisscheese.map.MazeSolver;
+import org.swisscheese.swisscheese.map.maze.MazeAlgorithm;
+
+/**
+ * Test for {@link MazeSolver}.
+ *
+ * @author Alex Kalinins
+ * @since v1.0
+ */
+public class MazeSolverTest {
+	private static final int SIZE = 25;
+
+	/**
+	 * The path from the entry to the exit is a walk through neighboring empty
+	 * cells, as long as the distance in the flow field of the exit.
+	 */
+	@Test
+	public void testSolve() {
+		Map map = new Map(SIZE, 4L, MazeAlgorithm.PRIM);
+		MazeGrid grid = map.getCellSource();
+		int[] path = MazeSolver.solve(map);
+
+		assertEquals((int) map.getEntry().getX(), grid.getX(path[0]));
+		assertEquals((int) map.getEntry().getY(), grid.getY(path[0]));
+		assertEquals((int) map.getExit().getX(), grid.getX(path[path.length - 1]));
+		assertEquals((int) map.getExit().getY(), grid.getY(path[path.length - 1]));
+		for (int i = 1; i < path.length; i++) {
+			int dx = Math.abs(grid.getX(path[i]) - grid.getX(path[i - 1]));
+			int dy = Math.abs(grid.getY(path[i]) - grid.getY(path[i - 1]));
+			assertEquals(1, dx + dy);
+			if (i < path.length - 1) {
+				assertEquals(0, grid.getCell(grid.getX(path[i]), grid.getY(path[i])));
+			}
+		}
+
+		FlowField field = MazeSolver.flowField(grid, map.getExit().getX(), map.getExit().getY());
+		assertEquals(path.length - 1, field.getDistance(map.getEntry().getX(), map.getEntry().getY()));
+	}
+
+	/**
+	 * Searching from both ends finds paths as short as the flow field, and
+	 * following the flow field reaches the target.
+	 */
+	@Test
+	public void testShortestPathsMatchFlowField() {
+		Map map = new Map(SIZE, 9L, MazeAlgorithm.KRUSKAL);
+		MazeGrid grid = map.getCellSource();
+		Random random = new Random(2);
+		int n = grid.getWidth();
+		for (int i = 0; i < 20; i++) {
+			int tx = 2 + 2 * random.nextInt(SIZE);
+			int ty = 2 + 2 * random.nextInt(SIZE);
+			FlowField field = MazeSolver.flowField(grid, tx, ty);
+			int x = 2 + 2 * random.nextInt(SIZE);
+			int y = 2 + 2 * random.nextInt(SIZE);
+			int distance = field.getDistance(x, y);
+			assertTrue(distance >= 0 && distance < n * n);
+			assertEquals(distance + 1, MazeSolver.shortestPath(grid, x, y, tx, ty).length);
+
+			int steps = 0;
+			while (x != tx || y != ty) {
+				int sx = field.getStepX(x, y);
+				int sy = field.getStepY(x, y);
+				x += sx;
+				y += sy;
+				steps++;
+				assertEquals(distance - steps, field.getDistance(x, y));
+			}
+			assertEquals(distance, steps);
+		}
+	}
+}
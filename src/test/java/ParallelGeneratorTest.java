@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package test.java;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+import org.swisscheese.swisscheese.map.maze.Maze;
+import org.swisscheese.swisscheese.map.maze.ParallelGenerator;
+
+/**
+ * Test for {@link ParallelGenerator}.
+ *
+ * @author Alex Kalinins
+ * @since v1.0
+ */
+public class ParallelGeneratorTest {
+	/** More than two regions wide, and not a multiple of the region size. */
+	private static final int SIZE = ParallelGenerator.REGION_SIZE * 2 + 13;
+
+	/**
+	 * The stitched maze is perfect: there is one passage less than there are
+	 * cells, and every cell is reachable.
+	 */
+	@Test
+	public void testPerfectMaze() {
+		int[][] map = ParallelGenerator.generateMaze(SIZE, 5L).toArray();
+		int passages = 0;
+		for (int i = 2; i < map.length - 2; i++) {
+			for (int j = 2; j < map.length - 2; j++) {
+				if (map[i][j] == 0 && (i % 2 == 0) != (j % 2 == 0)) {
+					passages++;
+				}
+			}
+		}
+		assertEquals(SIZE * SIZE - 1, passages);
+		assertEquals(SIZE * SIZE, countReachableCells(map));
+	}
+
+	/**
+	 * The same seed generates the same maze, no matter how many threads carve it.
+	 */
+	@Test
+	public void testSameSeedAnyThreads() {
+		ForkJoinPool single = new ForkJoinPool(1);
+		ForkJoinPool many = new ForkJoinPool(4);
+		try {
+			Maze first = ParallelGenerator.generateMaze(SIZE, 9L, single);
+			Maze second = ParallelGenerator.generateMaze(SIZE, 9L, many);
+			assertArrayEquals(first.toArray(), second.toArray());
+			assertEquals(first.getEntry(), second.getEntry());
+			assertEquals(first.getExit(), second.getExit());
+		} finally {
+			single.shutdown();
+			many.shutdown();
+		}
+	}
+
+	/**
+	 * Counts the cells (even positions inside the outer wall) that are reachable
+	 * from the first cell.
+	 */
+	private int countReachableCells(int[][] map) {
+		int n = map.length;
+		boolean[][] seen = new boolean[n][n];
+		int[] queue = new int[n * n];
+		int head = 0;
+		int tail = 0;
+		int cells = 0;
+		queue[tail++] = 2 + 2 * n;
+		seen[2][2] = true;
+		int[][] moves = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+		while (head < tail) {
+			int i = queue[head] % n;
+			int j = queue[head++] / n;
+			if (i % 2 == 0 && j % 2 == 0) {
+				cells++;
+			}
+			for (int[] m : moves) {
+				int ni = i + m[0];
+				int nj = j + m[1];
+				if (ni >= 2 && nj >= 2 && ni < n - 2 && nj < n - 2 && map[ni][nj] == 0 && !seen[ni][nj]) {
+					seen[ni][nj] = true;
+					queue[tail++] = ni + nj * n;
+				}
+			}
+		}
+		return cells;
+	}
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2018 Alex Kalinins
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package test.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.swisscheese.swisscheese.engine.imageEffects.ChangeGamma;
+import org.swisscheese.swisscheese.engine.imageEffects.GammaState;
+import org.swisscheese.swisscheese.engine.io.images.PixelImage;
+import org.swisscheese.swisscheese.engine.texture.TextureSampler;
+
+/**
+ * Test for {@link TextureSampler}.
+ *
+ * @author Alex Kalinins
+ * @since v1.0
+ */
+public class TextureSamplerTest {
+
+	/**
+	 * A square power-of-two texture is copied column by column, and addressed by
+	 * shifts.
+	 */
+	@Test
+	public void testPowerOfTwo() {
+		for (int size = TextureSampler.MIN_SIZE; size <= TextureSampler.MAX_SIZE; size <<= 1) {
+			PixelImage image = image(size, size);
+			TextureSampler sampler = new TextureSampler(image);
+			assertEquals(image.getPixels()[7 + 2 * size], sampler.getTexels()[2 + (7 << sampler.getShift())]);
+			assertEquals(size, 1 << sampler.getShift());
+			assertEquals(size - 1, sampler.getMask());
+			assertEquals(3 * size + 5, sampler.getTexel(3, 5));
+			assertEquals(sampler.getTexel(1, 2), sampler.getTexel(size + 1, 2 - size));
+		}
+	}
+
+	/**
+	 * Any other image is scaled to the next power of two, within the limits.
+	 */
+	@Test
+	public void testResample() {
+		assertEquals(32, TextureSampler.samplerSize(16, 16));
+		assertEquals(64, TextureSampler.samplerSize(48, 40));
+		assertEquals(128, TextureSampler.samplerSize(65, 128));
+		assertEquals(1024, TextureSampler.samplerSize(3000, 3000));
+
+		TextureSampler sampler = new TextureSampler(image(48, 24));
+		assertEquals(64, sampler.getSize());
+		// nearest texel: (x * 48 / 64, y * 24 / 64)
+		assertEquals((10 * 48 / 64) * 24 + (40 * 24 / 64), sampler.getTexel(10, 40));
+	}
+
+	/**
+	 * Halving averages every block of 2x2 texels, channel by channel, down to 1x1
+	 * texel.
+	 */
+	@Test
+	public void testHalf() {
+		int[] pixels = new int[32 * 32];
+		for (int i = 0; i < pixels.length; i++) {
+			// columns alternate between two colors
+			pixels[i] = (i % 2 == 0) ? 0xFF102030 : 0xFF304050;
+		}
+		TextureSampler sampler = new TextureSampler(new PixelImage(pixels, 32, 32));
+		for (int size = 16; size >= 1; size >>= 1) {
+			sampler = sampler.half();
+			assertEquals(size, sampler.getSize());
+			assertEquals(0xFF203040, sampler.getTexel(0, 0));
+			assertEquals(0xFF203040, sampler.getTexel(size - 1, size - 1));
+		}
+	}
+
+	/**
+	 * The shaded texels are the same as changing the gamma of every texel, and
+	 * are kept until the texels are shaded for another state.
+	 */
+	@Test
+	public void testShading() {
+		int[] pixels = new int[32 * 32];
+		for (int i = 0; i < pixels.length; i++) {
+			pixels[i] = 0xFF000000 | (i * 0x010307);
+		}
+		TextureSampler sampler = new TextureSampler(new PixelImage(pixels, 32, 32));
+		assertSame(sampler.getTexels(), sampler.getTexels(GammaState.NORMAL, false));
+		for (GammaState state : GammaState.values()) {
+			sampler.shade(state);
+			int[] front = sampler.getTexels(state, false);
+			int[] side = sampler.getTexels(state, true);
+			assertSame(side, sampler.getTexels(state, true));
+			for (int i = 0; i < pixels.length; i++) {
+				int texel = sampler.getTexels()[i];
+				int shaded = ChangeGamma.getColor(texel, TextureSampler.SIDE_SHADE);
+				if (state != GammaState.NORMAL) {
+					texel = ChangeGamma.getColor(texel, state.getCoefficient());
+					shaded = ChangeGamma.getColor(shaded, state.getCoefficient());
+				}
+				assertEquals(texel, front[i]);
+				assertEquals(shaded, side[i]);
+			}
+		}
+	}
+
+	/**
+	 * The texels are not shaded while they are read, only by
+	 * {@link TextureSampler#shade(GammaState)}: until then the normal texels are
+	 * read. The texels of a state are kept when another state is shaded.
+	 */
+	@Test
+	public void testNotShaded() {
+		TextureSampler sampler = new TextureSampler(image(32, 32));
+		sampler.shade(GammaState.BRIGHT);
+		int[] bright = sampler.getTexels(GammaState.BRIGHT, true);
+		assertSame(sampler.getTexels(GammaState.NORMAL, true), sampler.getTexels(GammaState.DARK, true));
+		sampler.shade(GammaState.DARK);
+		sampler.shade(GammaState.BRIGHT);
+		assertSame(bright, sampler.getTexels(GammaState.BRIGHT, true));
+		assertNotSame(bright, sampler.getTexels(GammaState.DARK, true));
+	}
+
+	/**
+	 * An image whose texel (x, y) is <code>x * height + y</code>.
+	 */
+	private PixelImage image(int width, int height) {
+		int[] pixels = new int[width * height];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				pixels[x + y * width] = x * height + y;
+			}
+		}
+		return new PixelImage(pixels, width, height);
+	}
+}